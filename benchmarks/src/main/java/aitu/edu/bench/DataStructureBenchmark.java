@@ -0,0 +1,80 @@
+package aitu.edu.bench;
+
+import aitu.edu.mst.core.CSRGraph;
+import aitu.edu.mst.core.Edge;
+import aitu.edu.mst.core.EdgeWeightedGraph;
+import aitu.edu.mst.core.UF;
+import aitu.edu.mst.utility.IndexMinPQ;
+import aitu.edu.mst.utility.MinPQ;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The building blocks of the MST algorithms, each driven by the edges of the
+ * benchmark graph in the pattern the algorithms use them, plus the cost of
+ * building the graph representations themselves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataStructureBenchmark {
+
+    // one union per edge, as in Kruskal's scan
+    @Benchmark
+    public int unionFind(GraphState s) {
+        UF uf = new UF(s.V);
+        for (int i = 0; i < s.E; i++) {
+            if (uf.find(s.from[i]) != uf.find(s.to[i])) uf.union(s.from[i], s.to[i]);
+        }
+        return uf.count();
+    }
+
+    // insert or decrease the key of each edge's endpoint, then drain, as in eager Prim
+    @Benchmark
+    public int indexMinPQ(GraphState s) {
+        IndexMinPQ<Double> pq = new IndexMinPQ<>(s.V);
+        for (int i = 0; i < s.E; i++) {
+            int w = s.to[i];
+            double key = s.weight[i];
+            if (!pq.contains(w))             pq.insert(w, key);
+            else if (key < pq.keyOf(w))      pq.decreaseKey(w, key);
+        }
+        int last = -1;
+        while (!pq.isEmpty()) last = pq.delMin();
+        return last;
+    }
+
+    // insert every edge, then drain, as in lazy Prim
+    @Benchmark
+    public Edge minPQ(GraphState s) {
+        MinPQ<Edge> pq = new MinPQ<>();
+        for (int i = 0; i < s.E; i++) pq.insert(new Edge(s.from[i], s.to[i], s.weight[i]));
+        Edge last = null;
+        while (!pq.isEmpty()) last = pq.delMin();
+        return last;
+    }
+
+    @Benchmark
+    public EdgeWeightedGraph buildEdgeWeightedGraph(GraphState s) {
+        return s.buildGraph();
+    }
+
+    @Benchmark
+    public CSRGraph buildCSR(GraphState s) {
+        return s.buildCSR();
+    }
+
+    @Benchmark
+    public CSRGraph convertToCSR(GraphState s) {
+        return new CSRGraph(s.graph);
+    }
+}
@@ -0,0 +1,120 @@
+package aitu.edu.bench;
+
+import aitu.edu.mst.DynamicMST;
+import aitu.edu.mst.core.Edge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DynamicMST} deletions at their worst: a path of weight-0 edges under
+ * 4V heavier random edges, with the path edges deleted middle first. Every
+ * deletion then cuts a tree into two halves of equal size, which is what a
+ * search over the smaller half pays most for. {@code balancedCuts} times
+ * the whole sweep of V-1 deletions; {@code replace} times one deletion and one
+ * insertion of a random edge on the same graph, the typical mixed workload.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamicMSTBenchmark {
+    private static final long SEED = 20251018L;
+
+    // the path and random edges, rebuilt from the seed
+    public static class Graph {
+        @Param({"16384", "131072"})
+        public int V;
+
+        DynamicMST dynamic;
+        Edge[] path;
+        List<Edge> present;
+        Random rnd;
+
+        void build() {
+            rnd = new Random(SEED);
+            dynamic = new DynamicMST(V);
+            present = new ArrayList<>(4 * V);
+            path = new Edge[V - 1];
+            for (int v = 0; v + 1 < V; v++) {
+                path[v] = new Edge(v, v + 1, 0);
+                dynamic.addEdge(path[v]);
+            }
+            for (int i = 0; i < 4 * V; i++) {
+                Edge e = new Edge(rnd.nextInt(V), rnd.nextInt(V), 1 + rnd.nextDouble());
+                dynamic.addEdge(e);
+                present.add(e);
+            }
+        }
+    }
+
+    // a fresh graph for every sweep, and the path edges middle first
+    @State(Scope.Thread)
+    public static class Cuts extends Graph {
+        int[] order;
+
+        @Setup(Level.Trial)
+        public void order() {
+            order = new int[V - 1];
+            int n = 0;
+            int[] lo = new int[2 * V], hi = new int[2 * V];
+            hi[0] = V - 1;
+            // breadth-first over the halves, so every level of the bisection is cut before the next
+            for (int head = 0, tail = 1; head < tail; head++) {
+                if (lo[head] >= hi[head]) continue;
+                int mid = (lo[head] + hi[head]) >>> 1;
+                order[n++] = mid;
+                lo[tail] = lo[head];
+                hi[tail++] = mid;
+                lo[tail] = mid + 1;
+                hi[tail++] = hi[head];
+            }
+        }
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            build();
+        }
+    }
+
+    // one graph for the whole trial
+    @State(Scope.Thread)
+    public static class Mixed extends Graph {
+        @Setup(Level.Trial)
+        public void setUp() {
+            build();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public double balancedCuts(Cuts s) {
+        for (int k : s.order) s.dynamic.removeEdge(s.path[k]);
+        return s.dynamic.totalWeight();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean replace(Mixed s) {
+        int i = s.rnd.nextInt(s.present.size());
+        s.dynamic.removeEdge(s.present.get(i));
+        Edge e = new Edge(s.rnd.nextInt(s.V), s.rnd.nextInt(s.V), 1 + s.rnd.nextDouble());
+        s.present.set(i, e);
+        return s.dynamic.addEdge(e);
+    }
+}
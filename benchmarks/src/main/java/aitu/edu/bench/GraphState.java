@@ -0,0 +1,96 @@
+package aitu.edu.bench;
+
+import aitu.edu.mst.core.CSRGraph;
+import aitu.edu.mst.core.Edge;
+import aitu.edu.mst.core.EdgeWeightedGraph;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * A random connected graph shared by all benchmarks, generated once per trial
+ * from a fixed seed so that every run and every release measures the same
+ * input.
+ * <p>
+ * {@code density} is the fraction of all V(V-1)/2 vertex pairs that get an
+ * edge (at least V-1, since a random spanning tree is always included).
+ * {@code weights} picks the weight distribution:
+ * <ul>
+ * <li>{@code uniform}: uniform doubles in [0, 1), practically no ties.
+ * <li>{@code integer}: integers 0..99 like our JSON datasets, many ties.
+ * <li>{@code exponential}: exponential with mean 1, most weights small.
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class GraphState {
+    private static final long SEED = 20251018L;
+
+    @Param({"1000", "10000"})
+    public int V;
+
+    @Param({"0.001", "0.01", "0.05"})
+    public double density;
+
+    @Param({"uniform", "integer", "exponential"})
+    public String weights;
+
+    // the edges as primitive columns, for the construction and data structure benchmarks
+    public int E;
+    public int[] from;
+    public int[] to;
+    public double[] weight;
+
+    public EdgeWeightedGraph graph;
+    public CSRGraph csr;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rnd = new Random(SEED);
+        long pairs = (long) V * (V - 1) / 2;
+        E = (int) Math.max(V - 1, Math.min(pairs, Math.round(density * pairs)));
+        from = new int[E];
+        to = new int[E];
+        weight = new double[E];
+
+        // a random spanning tree keeps the graph connected, the rest is uniform
+        for (int v = 1; v < V; v++) {
+            from[v - 1] = rnd.nextInt(v);
+            to[v - 1] = v;
+        }
+        for (int i = V - 1; i < E; i++) {
+            int v = rnd.nextInt(V);
+            int w = rnd.nextInt(V - 1);
+            from[i] = v;
+            to[i] = w >= v ? w + 1 : w;
+        }
+        for (int i = 0; i < E; i++) weight[i] = nextWeight(rnd);
+
+        graph = buildGraph();
+        csr = new CSRGraph(graph);
+    }
+
+    public EdgeWeightedGraph buildGraph() {
+        EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+        for (int i = 0; i < E; i++) G.addEdge(new Edge(from[i], to[i], weight[i]));
+        return G;
+    }
+
+    public CSRGraph buildCSR() {
+        CSRGraph.Builder builder = new CSRGraph.Builder(V, E);
+        for (int i = 0; i < E; i++) builder.addEdge(from[i], to[i], weight[i]);
+        return builder.build();
+    }
+
+    private double nextWeight(Random rnd) {
+        switch (weights) {
+            case "uniform":     return rnd.nextDouble();
+            case "integer":     return rnd.nextInt(100);
+            case "exponential": return -Math.log(1 - rnd.nextDouble());
+            default: throw new IllegalArgumentException("unknown weight distribution: " + weights);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package aitu.edu.bench;
+
+import aitu.edu.mst.PrimMST;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prim with every heap arity on the benchmark graphs, to check
+ * {@link PrimMST#DEFAULT_ARITY}. The {@link GraphState} grid runs from an
+ * average degree of about 1 to about 500; larger sparse graphs are one
+ * {@code -p V=200000 -p density=0.00003} away. {@code heap_arity_summary.csv}
+ * in the repository root is the per-graph summary the default was chosen from.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class HeapArityBenchmark {
+
+    @Param({"2", "4", "8", "16"})
+    public int arity;
+
+    @Benchmark
+    public PrimMST.MSTResult prim(GraphState s) {
+        return PrimMST.run(s.graph, arity);
+    }
+
+    @Benchmark
+    public PrimMST.MSTResult primCSR(GraphState s) {
+        return PrimMST.run(s.csr, arity);
+    }
+}
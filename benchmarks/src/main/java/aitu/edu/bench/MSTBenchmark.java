@@ -0,0 +1,72 @@
+package aitu.edu.bench;
+
+import aitu.edu.mst.BoruvkaMST;
+import aitu.edu.mst.KruskalMST;
+import aitu.edu.mst.PrimMST;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state running time of the MST algorithms on the same graphs, after
+ * JIT warmup, instead of the single cold {@code executionTimeMs} window the
+ * algorithms report themselves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MSTBenchmark {
+
+    @Benchmark
+    public PrimMST.MSTResult prim(GraphState s) {
+        return PrimMST.run(s.graph);
+    }
+
+    @Benchmark
+    public PrimMST.MSTResult primCSR(GraphState s) {
+        return PrimMST.run(s.csr);
+    }
+
+    @Benchmark
+    public PrimMST.MSTResult primAuto(GraphState s) {
+        return PrimMST.runAuto(s.graph);
+    }
+
+    @Benchmark
+    public KruskalMST.MSTResult kruskal(GraphState s) {
+        return KruskalMST.run(s.graph);
+    }
+
+    @Benchmark
+    public KruskalMST.MSTResult kruskalFilter(GraphState s) {
+        return KruskalMST.run(s.graph, KruskalMST.Mode.FILTER);
+    }
+
+    @Benchmark
+    public KruskalMST.MSTResult kruskalParallelSort(GraphState s) {
+        return KruskalMST.run(s.graph, KruskalMST.Mode.PARALLEL_SORT);
+    }
+
+    @Benchmark
+    public KruskalMST.MSTResult kruskalRadix(GraphState s) {
+        return KruskalMST.run(s.graph, KruskalMST.Mode.RADIX);
+    }
+
+    @Benchmark
+    public KruskalMST.MSTResult kruskalCSR(GraphState s) {
+        return KruskalMST.run(s.csr);
+    }
+
+    @Benchmark
+    public BoruvkaMST.MSTResult boruvka(GraphState s) {
+        return BoruvkaMST.run(s.graph);
+    }
+}
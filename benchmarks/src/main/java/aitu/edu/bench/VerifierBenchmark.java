@@ -0,0 +1,50 @@
+package aitu.edu.bench;
+
+import aitu.edu.mst.MSTVerifier;
+import aitu.edu.mst.PrimMST;
+import aitu.edu.mst.core.Edge;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking a minimum spanning tree with {@link MSTVerifier} next to computing
+ * it again with Prim, on the same graphs. The 200,000 vertex, 2,000,000 edge
+ * case is {@code -p V=200000 -p density=0.0001 -p weights=uniform}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VerifierBenchmark {
+
+    private List<Edge> tree;
+
+    @Setup(Level.Trial)
+    public void setUp(GraphState s) {
+        tree = PrimMST.run(s.graph).edges;
+    }
+
+    @Benchmark
+    public MSTVerifier.VerificationResult verify(GraphState s) {
+        return MSTVerifier.verify(s.graph, tree);
+    }
+
+    @Benchmark
+    public PrimMST.MSTResult prim(GraphState s) {
+        return PrimMST.run(s.graph);
+    }
+}
@@ -0,0 +1,85 @@
+package aitu.edu.app;
+
+import aitu.edu.mst.KruskalMST;
+import aitu.edu.mst.PrimMST;
+import aitu.edu.mst.core.EdgeWeightedGraph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Prim and Kruskal on each submitted graph and hands the results to a
+ * {@link ResultWriter} in submission order.
+ * <p>
+ * With one thread every graph is solved and written on the calling thread.
+ * With more, the two runs of every graph are separate tasks on a fixed worker
+ * pool, so several graphs and both algorithms of a graph proceed at once.
+ * Results are still written strictly in submission order: the caller waits
+ * for the oldest pending graph whenever {@code 2 * threads} graphs are in
+ * flight, which also bounds how many graphs are held in memory. Each run
+ * keeps its own {@code executionTimeMs} window around just its own work.
+ */
+final class GraphSolver implements Closeable {
+
+    private static final class Solved {
+        final int graphId;
+        final List<String> nodes;
+        final int edgeCount;
+        final PrimMST.MSTResult prim;
+        final KruskalMST.MSTResult kruskal;
+
+        Solved(int graphId, List<String> nodes, int edgeCount, PrimMST.MSTResult prim, KruskalMST.MSTResult kruskal) {
+            this.graphId = graphId;
+            this.nodes = nodes;
+            this.edgeCount = edgeCount;
+            this.prim = prim;
+            this.kruskal = kruskal;
+        }
+    }
+
+    private final ResultWriter out;
+    private final ExecutorService pool;         // null when solving on the calling thread
+    private final int window;                   // most graphs in flight at once
+    private final ArrayDeque<CompletableFuture<Solved>> pending = new ArrayDeque<>();
+
+    GraphSolver(ResultWriter out, int threads) {
+        if (threads < 1) throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        this.out = out;
+        this.pool = threads == 1 ? null : Executors.newFixedThreadPool(threads);
+        this.window = 2 * threads;
+    }
+
+    void submit(int graphId, List<String> nodes, int edgeCount, EdgeWeightedGraph G) throws IOException {
+        if (pool == null) {
+            PrimMST.MSTResult prim = PrimMST.run(G);
+            KruskalMST.MSTResult kruskal = KruskalMST.run(G);
+            out.write(graphId, nodes, edgeCount, prim, kruskal);
+            return;
+        }
+        // the graph is only read from here on, so both runs may share it
+        CompletableFuture<PrimMST.MSTResult> prim = CompletableFuture.supplyAsync(() -> PrimMST.run(G), pool);
+        CompletableFuture<KruskalMST.MSTResult> kruskal = CompletableFuture.supplyAsync(() -> KruskalMST.run(G), pool);
+        pending.add(prim.thenCombine(kruskal, (p, k) -> new Solved(graphId, nodes, edgeCount, p, k)));
+        while (pending.size() >= window) writeOldest();
+    }
+
+    private void writeOldest() throws IOException {
+        Solved s = pending.remove().join();
+        out.write(s.graphId, s.nodes, s.edgeCount, s.prim, s.kruskal);
+    }
+
+    // writes every pending result, then stops the workers
+    @Override
+    public void close() throws IOException {
+        try {
+            while (!pending.isEmpty()) writeOldest();
+        } finally {
+            if (pool != null) pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package aitu.edu.app;
+
+import aitu.edu.mst.core.Edge;
+import aitu.edu.mst.core.EdgeWeightedGraph;
+import com.google.gson.stream.JsonReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the {@code {"graphs": [...]}} input format one graph at a time with a
+ * Gson {@link JsonReader}. Each graph's edges go straight into an
+ * {@link EdgeWeightedGraph} as they are parsed, so only the current graph is
+ * ever held in memory and no {@code EdgeInput} objects are created.
+ * <p>
+ * Edges are resolved against the graph's {@code nodes} list. When a graph
+ * lists its edges before its nodes, the edges of that graph are buffered
+ * until the nodes are known.
+ */
+final class GraphStreamReader implements Closeable {
+
+    static final class StreamedGraph {
+        final int id;
+        final List<String> nodes;
+        final int edgeCount;            // edges in the input, including ones with unknown nodes
+        final EdgeWeightedGraph graph;
+
+        StreamedGraph(int id, List<String> nodes, int edgeCount, EdgeWeightedGraph graph) {
+            this.id = id;
+            this.nodes = nodes;
+            this.edgeCount = edgeCount;
+            this.graph = graph;
+        }
+    }
+
+    private final JsonReader in;
+    private boolean inGraphs;       // positioned inside the "graphs" array
+    private boolean exhausted;      // no more graphs to read
+
+    GraphStreamReader(Reader reader) {
+        this.in = new JsonReader(reader);
+    }
+
+    boolean hasNext() throws IOException {
+        if (exhausted) return false;
+        if (!inGraphs) {
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("graphs")) {
+                    in.beginArray();
+                    inGraphs = true;
+                    break;
+                }
+                in.skipValue();
+            }
+            if (!inGraphs) {
+                exhausted = true;
+                return false;
+            }
+        }
+        if (!in.hasNext()) {
+            in.endArray();
+            exhausted = true;
+            return false;
+        }
+        return true;
+    }
+
+    StreamedGraph next() throws IOException {
+        if (!hasNext()) throw new IllegalStateException("no more graphs");
+        int id = 0;
+        List<String> nodes = new ArrayList<>();
+        Map<String, Integer> idx = null;
+        EdgeWeightedGraph G = null;
+        int edgeCount = 0;
+        List<String> pendingFrom = new ArrayList<>();
+        List<String> pendingTo = new ArrayList<>();
+        List<Double> pendingWeight = new ArrayList<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "id":
+                    id = in.nextInt();
+                    break;
+                case "nodes":
+                    in.beginArray();
+                    while (in.hasNext()) nodes.add(in.nextString());
+                    in.endArray();
+                    idx = new HashMap<>();
+                    for (int i = 0; i < nodes.size(); i++) idx.put(nodes.get(i), i);
+                    G = new EdgeWeightedGraph(nodes.size());
+                    break;
+                case "edges":
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        String from = null, to = null;
+                        double weight = 0.0;
+                        in.beginObject();
+                        while (in.hasNext()) {
+                            switch (in.nextName()) {
+                                case "from":   from = in.nextString(); break;
+                                case "to":     to = in.nextString(); break;
+                                case "weight": weight = in.nextDouble(); break;
+                                default:       in.skipValue();
+                            }
+                        }
+                        in.endObject();
+                        edgeCount++;
+                        if (G != null) {
+                            addEdge(G, idx, from, to, weight);
+                        } else {
+                            pendingFrom.add(from);
+                            pendingTo.add(to);
+                            pendingWeight.add(weight);
+                        }
+                    }
+                    in.endArray();
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (G == null) {
+            idx = new HashMap<>();
+            G = new EdgeWeightedGraph(0);
+        }
+        for (int i = 0; i < pendingFrom.size(); i++)
+            addEdge(G, idx, pendingFrom.get(i), pendingTo.get(i), pendingWeight.get(i));
+        return new StreamedGraph(id, nodes, edgeCount, G);
+    }
+
+    private static void addEdge(EdgeWeightedGraph G, Map<String, Integer> idx, String from, String to, double weight) {
+        Integer v = idx.get(from);
+        Integer w = idx.get(to);
+        if (v == null || w == null) {
+            System.err.println("Unknown node in input graph: " + from + " or " + to);
+            return;
+        }
+        G.addEdge(new Edge(v, w, weight));
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
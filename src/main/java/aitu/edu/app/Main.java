@@ -2,14 +2,13 @@ package aitu.edu.app;
 
 import aitu.edu.mst.core.Edge;
 import aitu.edu.mst.core.EdgeWeightedGraph;
-import aitu.edu.mst.KruskalMST;
-import aitu.edu.mst.PrimMST;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.annotations.SerializedName;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.FileReader;
 import java.io.FileWriter;
+import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -33,115 +32,94 @@ public class Main {
         List<GraphInput> graphs;
     }
 
-    static class IOStats {
-        int vertices;
-        int edges;
-    }
-
-    static class EdgeOut {
-        String from;
-        String to;
-        double weight;
-
-        EdgeOut(String f, String t, double w) { from = f; to = t; weight = w; }
-    }
-
-    static class AlgoOut {
-        @SerializedName("mst_edges")
-        List<EdgeOut> mstEdges = new ArrayList<>();
-        @SerializedName("total_cost")
-        double totalCost;
-        @SerializedName("operations_count")
-        long operationsCount;
-        @SerializedName("execution_time_ms")
-        double executionTimeMs;
-    }
-
-    static class GraphResult {
-        @SerializedName("graph_id")
-        int graphId;
-        @SerializedName("input_stats")
-        IOStats inputStats;
-        AlgoOut prim;
-        AlgoOut kruskal;
-    }
-
-    static class OutputRoot {
-        List<GraphResult> results = new ArrayList<>();
-    }
+    private static final String USAGE = "Usage: Main [--stream] [--compact] [--threads N] [input.json [output.json]]";
 
     public static void main(String[] args) {
         String inputPath = "src/main/resources/random_graphs_dense.json";
         String outputPath = "ass_3_output_dense.json";
-        if (args.length >= 1) inputPath = args[0];
-        if (args.length >= 2) outputPath = args[1];
-
-        try (Reader reader = new FileReader(inputPath)) {
-            Gson gson = new Gson();
-            InputRoot root = gson.fromJson(reader, InputRoot.class);
-
-            OutputRoot outRoot = new OutputRoot();
-
-            for (GraphInput gIn : root.graphs) {
-                Map<String, Integer> idx = new HashMap<>();
-                for (int i = 0; i < gIn.nodes.size(); i++) idx.put(gIn.nodes.get(i), i);
-                EdgeWeightedGraph G = new EdgeWeightedGraph(gIn.nodes.size());
-
-                for (EdgeInput e : gIn.edges) {
-                    Integer v = idx.get(e.from);
-                    Integer w = idx.get(e.to);
-                    if (v == null || w == null) {
-                        System.err.println("Unknown node in input graph: " + e.from + " or " + e.to);
-                        continue;
-                    }
-                    G.addEdge(new Edge(v, w, e.weight));
-                }
-
-                PrimMST.MSTResult primRes = PrimMST.run(G);
+        boolean stream = false;
+        boolean compact = false;
+        int threads = 1;
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if      (arg.equals("--stream"))  stream = true;
+            else if (arg.equals("--compact")) compact = true;
+            else if (arg.equals("--threads")) {
+                if (i + 1 == args.length) usage("--threads needs a value");
+                threads = parseThreads(args[++i]);
+            }
+            else                              positional.add(arg);
+        }
+        if (positional.size() > 2) usage("too many arguments");
+        if (positional.size() >= 1) inputPath = positional.get(0);
+        if (positional.size() >= 2) outputPath = positional.get(1);
+
+        // open and, in batch mode, parse the input before the output file is created,
+        // so a bad input never truncates the results of an earlier run
+        try (Reader input = new BufferedReader(new FileReader(inputPath))) {
+            InputRoot root = stream ? null : new Gson().fromJson(input, InputRoot.class);
+            if (!stream && (root == null || root.graphs == null))
+                throw new IllegalArgumentException("input has no \"graphs\" array: " + inputPath);
+            try (ResultWriter out = new ResultWriter(new BufferedWriter(new FileWriter(outputPath)), compact);
+                 GraphSolver solver = new GraphSolver(out, threads)) {
+                if (stream) runStreaming(input, solver);
+                else        runBatch(root, solver);
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            System.err.println("Failed to process input: " + ex.getMessage());
+            System.exit(1);
+        }
 
-                KruskalMST.MSTResult krusRes = KruskalMST.run(G);
+        System.out.println("MST analysis completed. Output written to: " + outputPath);
+    }
 
-                GraphResult gr = new GraphResult();
-                gr.graphId = gIn.id;
-                IOStats stats = new IOStats();
-                stats.vertices = gIn.nodes.size();
-                stats.edges = gIn.edges.size();
-                gr.inputStats = stats;
+    private static int parseThreads(String value) {
+        try {
+            int threads = Integer.parseInt(value);
+            if (threads >= 1) return threads;
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        usage("--threads needs a positive integer, got: " + value);
+        return 1;
+    }
 
-                gr.prim = new AlgoOut();
-                gr.prim.totalCost = primRes.totalWeight;
-                gr.prim.operationsCount = primRes.operationsCount;
-                gr.prim.executionTimeMs = primRes.executionTimeMs;
-                for (Edge e : primRes.edges) {
-                    String from = gIn.nodes.get(e.either());
-                    String to = gIn.nodes.get(e.other(e.either()));
-                    gr.prim.mstEdges.add(new EdgeOut(from, to, e.weight()));
-                }
+    private static void usage(String problem) {
+        System.err.println(problem);
+        System.err.println(USAGE);
+        System.exit(2);
+    }
 
-                gr.kruskal = new AlgoOut();
-                gr.kruskal.totalCost = krusRes.totalWeight;
-                gr.kruskal.operationsCount = krusRes.operationsCount;
-                gr.kruskal.executionTimeMs = krusRes.executionTimeMs;
-                for (Edge e : krusRes.edges) {
-                    String from = gIn.nodes.get(e.either());
-                    String to = gIn.nodes.get(e.other(e.either()));
-                    gr.kruskal.mstEdges.add(new EdgeOut(from, to, e.weight()));
+    // the input was parsed up front; solve and write graph by graph
+    private static void runBatch(InputRoot root, GraphSolver solver) throws IOException {
+        for (GraphInput gIn : root.graphs) {
+            Map<String, Integer> idx = new HashMap<>();
+            for (int i = 0; i < gIn.nodes.size(); i++) idx.put(gIn.nodes.get(i), i);
+            EdgeWeightedGraph G = new EdgeWeightedGraph(gIn.nodes.size());
+
+            for (EdgeInput e : gIn.edges) {
+                Integer v = idx.get(e.from);
+                Integer w = idx.get(e.to);
+                if (v == null || w == null) {
+                    System.err.println("Unknown node in input graph: " + e.from + " or " + e.to);
+                    continue;
                 }
-
-                outRoot.results.add(gr);
-            }
-
-            Gson pretty = new GsonBuilder().setPrettyPrinting().create();
-            try (FileWriter fw = new FileWriter(outputPath)) {
-                pretty.toJson(outRoot, fw);
+                G.addEdge(new Edge(v, w, e.weight));
             }
 
-            System.out.println("MST analysis completed. Output written to: " + outputPath);
+            solver.submit(gIn.id, gIn.nodes, gIn.edges.size(), G);
+        }
+    }
 
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            System.err.println("Failed to process input: " + ex.getMessage());
-            System.exit(1);
+    // read graphs one at a time; memory stays bounded by the graphs the solver has in flight
+    private static void runStreaming(Reader input, GraphSolver solver) throws IOException {
+        try (GraphStreamReader graphs = new GraphStreamReader(input)) {
+            while (graphs.hasNext()) {
+                GraphStreamReader.StreamedGraph g = graphs.next();
+                solver.submit(g.id, g.nodes, g.edgeCount, g.graph);
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package aitu.edu.app;
+
+import aitu.edu.mst.KruskalMST;
+import aitu.edu.mst.PrimMST;
+import aitu.edu.mst.core.Edge;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes the {@code {"results": [...]}} output format incrementally with a
+ * Gson {@link JsonWriter}. Each graph's result is written straight from the
+ * MST results and flushed as soon as {@link #write} is called, so nothing
+ * accumulates between graphs and the first results are on disk while later
+ * graphs are still being solved.
+ * <p>
+ * Pretty output uses the same two-space layout as {@code Gson}'s pretty
+ * printing; compact output has no whitespace at all.
+ */
+final class ResultWriter implements Closeable {
+    private final JsonWriter out;
+
+    ResultWriter(Writer writer, boolean compact) throws IOException {
+        out = new JsonWriter(writer);
+        if (!compact) out.setIndent("  ");
+        out.beginObject();
+        out.name("results");
+        out.beginArray();
+    }
+
+    void write(int graphId, List<String> nodes, int edgeCount,
+               PrimMST.MSTResult prim, KruskalMST.MSTResult kruskal) throws IOException {
+        out.beginObject();
+        out.name("graph_id").value(graphId);
+        out.name("input_stats");
+        out.beginObject();
+        out.name("vertices").value(nodes.size());
+        out.name("edges").value(edgeCount);
+        out.endObject();
+        out.name("prim");
+        writeAlgo(nodes, prim.edges, prim.totalWeight, prim.operationsCount, prim.executionTimeMs);
+        out.name("kruskal");
+        writeAlgo(nodes, kruskal.edges, kruskal.totalWeight, kruskal.operationsCount, kruskal.executionTimeMs);
+        out.endObject();
+        out.flush();
+    }
+
+    private void writeAlgo(List<String> nodes, List<Edge> edges, double totalCost,
+                           long operationsCount, double executionTimeMs) throws IOException {
+        out.beginObject();
+        out.name("mst_edges");
+        out.beginArray();
+        for (Edge e : edges) {
+            int v = e.either();
+            out.beginObject();
+            out.name("from").value(nodes.get(v));
+            out.name("to").value(nodes.get(e.other(v)));
+            out.name("weight").value(e.weight());
+            out.endObject();
+        }
+        out.endArray();
+        out.name("total_cost").value(totalCost);
+        out.name("operations_count").value(operationsCount);
+        out.name("execution_time_ms").value(executionTimeMs);
+        out.endObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.endArray();
+        out.endObject();
+        out.close();
+    }
+}
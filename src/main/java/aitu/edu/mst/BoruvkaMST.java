@@ -0,0 +1,137 @@
+package aitu.edu.mst;
+
+import aitu.edu.mst.core.CompactGraph;
+import aitu.edu.mst.core.ConcurrentUF;
+import aitu.edu.mst.core.Edge;
+import aitu.edu.mst.core.EdgeList;
+import aitu.edu.mst.core.EdgeWeightedGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Borůvka's algorithm with the edge scans done in parallel.
+ * <p>
+ * Each round finds the cheapest edge leaving every component, adds all of
+ * them to the forest, contracts the merged components and drops the edges
+ * that became internal. There are at most log<sub>2</sub> V rounds. Every
+ * phase of a round runs on the common fork-join pool: each component's best
+ * edge is kept in an {@link AtomicIntegerArray} and improved with
+ * compare-and-set, and the chosen edges are merged and the components
+ * relabeled through a lock-free {@link ConcurrentUF}.
+ * <p>
+ * Ties are broken by the position of the edge in {@code G.edges()}, the same
+ * order {@link KruskalMST} sorts stably, so both return exactly the same edge
+ * set. On a disconnected graph the result is a minimum spanning forest.
+ */
+public class BoruvkaMST {
+    // below this many live edges a round is scanned on the calling thread
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    public static class MSTResult {
+        public List<Edge> edges = new ArrayList<>();
+        public double totalWeight = 0.0;
+        public long operationsCount = 0;
+        public double executionTimeMs = 0.0;
+    }
+
+    public static MSTResult run(EdgeWeightedGraph G) {
+        long start = System.nanoTime();
+        return run(EdgeList.of(G), G, start);
+    }
+
+    public static MSTResult run(CompactGraph G) {
+        long start = System.nanoTime();
+        return run(EdgeList.of(G), null, start);
+    }
+
+    public static MSTResult run(EdgeList edges) {
+        return run(edges, null, System.nanoTime());
+    }
+
+    // G may be null, in which case tree edges are materialized from the list
+    private static MSTResult run(EdgeList edges, EdgeWeightedGraph G, long start) {
+        MSTResult res = new MSTResult();
+        int V = edges.V();
+        int m = edges.E();
+        ConcurrentUF uf = new ConcurrentUF(V);
+        int[] comp = new int[V];          // comp[v] = component of v at the start of the round
+        for (int v = 0; v < V; v++) comp[v] = v;
+        int[] roots = new int[V];
+        for (int v = 0; v < V; v++) roots[v] = v;
+        int rootCount = V;
+        int[] picked = new int[V];        // picked[r] = edge added for roots[r] this round, or -1
+        int[] tree = new int[Math.max(V - 1, 0)];
+        int n = 0;
+
+        // self-loops can never be chosen
+        int[] live = IntStream.range(0, m).filter(e -> edges.from(e) != edges.to(e)).toArray();
+        AtomicIntegerArray best = new AtomicIntegerArray(V);
+        for (int v = 0; v < V; v++) best.set(v, -1);
+
+        while (live.length > 0) {
+            final int[] round = live;
+            final int[] rootsOfRound = roots;
+            res.operationsCount += round.length;
+            stream(round.length).forEach(k -> {
+                int e = round[k];
+                offer(best, comp[edges.from(e)], e, edges);
+                offer(best, comp[edges.to(e)], e, edges);
+            });
+
+            // with ties broken by index, the chosen edges form a forest; an edge
+            // picked by both of its components is merged by exactly one of them
+            stream(rootCount).forEach(r -> {
+                int c = rootsOfRound[r];
+                int e = best.get(c);
+                picked[r] = -1;
+                if (e == -1) return;
+                best.set(c, -1);
+                if (uf.union(edges.from(e), edges.to(e))) picked[r] = e;
+            });
+            for (int r = 0; r < rootCount; r++) {
+                int e = picked[r];
+                if (e == -1) continue;
+                tree[n++] = e;
+                res.totalWeight += edges.weight(e);
+                res.operationsCount++;
+            }
+
+            stream(V).forEach(v -> comp[v] = uf.find(v));
+            int next = 0;
+            for (int r = 0; r < rootCount; r++)
+                if (comp[roots[r]] == roots[r]) roots[next++] = roots[r];
+            rootCount = next;
+
+            live = stream(round.length).map(k -> round[k])
+                    .filter(e -> comp[edges.from(e)] != comp[edges.to(e)])
+                    .toArray();
+        }
+
+        res.edges = KruskalMST.treeEdges(edges, G, tree, n);
+
+        res.executionTimeMs = (System.nanoTime() - start) / 1_000_000.0;
+        return res;
+    }
+
+    private static IntStream stream(int n) {
+        IntStream s = IntStream.range(0, n);
+        return n >= PARALLEL_THRESHOLD ? s.parallel() : s;
+    }
+
+    // lower best[c] to e if e is lighter, retrying when another thread got there first
+    private static void offer(AtomicIntegerArray best, int c, int e, EdgeList edges) {
+        while (true) {
+            int cur = best.get(c);
+            if (cur != -1 && !lighter(e, cur, edges)) return;
+            if (best.compareAndSet(c, cur, e)) return;
+        }
+    }
+
+    private static boolean lighter(int e, int f, EdgeList edges) {
+        double we = edges.weight(e), wf = edges.weight(f);
+        return we < wf || (we == wf && e < f);
+    }
+}
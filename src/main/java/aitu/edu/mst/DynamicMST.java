@@ -0,0 +1,374 @@
+package aitu.edu.mst;
+
+import aitu.edu.mst.core.Edge;
+import aitu.edu.mst.core.EdgeWeightedGraph;
+import aitu.edu.mst.utility.EulerTourTree;
+import aitu.edu.mst.utility.LinkCutTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A minimum spanning forest maintained under edge insertions, deletions and
+ * weight changes.
+ * <p>
+ * The forest lives in a {@link LinkCutTree}: vertices {@code 0 .. V-1} are
+ * nodes of value {@code -Infinity} and every tree edge is a node of its own,
+ * valued by its weight and linked between its endpoints. Inserting
+ * {@code v-w} either links two trees, or closes a cycle, in which case the
+ * heaviest edge on the tree path from {@code v} to {@code w} (one
+ * path-maximum query) is replaced if the new edge is lighter. By the cycle
+ * property the result is again a minimum spanning forest. Equal weights are
+ * ordered by insertion, so the forest is always the one minimum spanning
+ * forest under that order.
+ * <p>
+ * Deletions use the levels of Holm, de Lichtenberg and Thorup. Every edge
+ * has a level between 0 and log<sub>2</sub> V. Level <em>i</em> keeps an
+ * {@link EulerTourTree} of the tree edges of level <em>i</em> or more, whose
+ * trees never have more than V / 2<sup><em>i</em></sup> vertices, and for
+ * each vertex the non-tree edges of level <em>i</em> in weight order. When a
+ * tree edge of level <em>l</em> is cut, levels <em>l</em> down to 0 are
+ * searched in turn. At each, the smaller half of the cut tree first moves
+ * its own tree edges of that level one level up, then takes its non-tree
+ * edges of that level lightest first: those with both ends in the half move
+ * one level up, and the first one leaving it is the lightest replacement of
+ * all. An edge rises at most log<sub>2</sub> V times at O(log V) each, which
+ * pays for the search, so a deletion costs O(log<sup>2</sup> V) amortized.
+ * <p>
+ * The levels stay correct only while the heaviest edge of every cycle has
+ * the lowest level on it. An insertion therefore first returns the non-tree
+ * edges heavier than the new edge to level 0, at O(log V) each. Inserting
+ * heavier edges than the deletions have raised, as when the graph only
+ * shrinks or grows by new maxima, moves nothing; otherwise the demoted edges
+ * can be raised again by later deletions, so the O(log<sup>2</sup> V) bound
+ * does not hold for workloads that alternate light insertions with
+ * deletions. This is the deletions-only structure of the paper, not its
+ * fully dynamic O(log<sup>4</sup> V) reduction.
+ * <p>
+ * Removing a non-tree edge costs O(log V), and so does lowering the weight
+ * of a tree edge, which keeps it in the tree at its level. Any other weight
+ * change is a deletion followed by an insertion. Edges are identified by
+ * reference: {@link #removeEdge(Edge)} and {@link #updateWeight(Edge, double)}
+ * take the {@link Edge} object that was added. The total weight and number of
+ * tree edges are kept up to date, so both are O(1); {@link #edges()} lists
+ * the current tree in O(V).
+ */
+public class DynamicMST {
+    private final int V;
+    private final LinkCutTree forest;
+    private Record[] treeRecord = new Record[16];   // treeRecord[x - V] = tree edge of link-cut node x, or null
+    private int[] freeNodes = new int[16];          // edge nodes no longer in the forest, ready for reuse
+    private int freeCount;
+    private int treeEdges;
+    private double totalWeight;
+    private long inserted;                          // insertion number of the next edge
+    private final Map<Edge, Record> recordOf = new IdentityHashMap<>();
+    private final List<Level> levels = new ArrayList<>();
+    private final TreeSet<Record> raised = new TreeSet<>();    // non-tree edges above level 0
+    private static final int NON_TREE = -1;
+
+    // an edge with its place in the weight order, its level and, in the forest, its nodes
+    private static final class Record implements Comparable<Record> {
+        Edge edge;
+        final long seq;         // insertion number, breaks weight ties
+        int level;
+        int node = NON_TREE;    // link-cut node, while in the forest
+        int[] tour = new int[1];    // tour[i] = edge in the Euler tour tree of level i, for i <= level
+
+        Record(Edge edge, long seq) {
+            this.edge = edge;
+            this.seq = seq;
+        }
+
+        public int compareTo(Record that) {
+            if (this.edge.weight() < that.edge.weight()) return -1;
+            if (this.edge.weight() > that.edge.weight()) return +1;
+            return Long.compare(this.seq, that.seq);
+        }
+    }
+
+    // one level: the forest of tree edges at this level or above, and the non-tree edges at this level
+    private final class Level {
+        final EulerTourTree tours = new EulerTourTree(V);
+        final List<TreeSet<Record>> nonTree = new ArrayList<>(Collections.nCopies(V, null));
+        Record[] treeEdge = new Record[16];    // treeEdge[t] = record of Euler tour edge t
+
+        int link(Record r) {
+            int v = r.edge.either();
+            int t = tours.link(v, r.edge.other(v));
+            if (t == treeEdge.length) treeEdge = Arrays.copyOf(treeEdge, 2 * t);
+            treeEdge[t] = r;
+            return t;
+        }
+
+        void cut(int t) {
+            tours.cut(t);
+            treeEdge[t] = null;
+        }
+
+        void add(Record r) {
+            int v = r.edge.either();
+            add(v, r);
+            add(r.edge.other(v), r);
+        }
+
+        void remove(Record r) {
+            int v = r.edge.either();
+            remove(v, r);
+            remove(r.edge.other(v), r);
+        }
+
+        // each vertex is valued by its lightest non-tree edge, so the tours can find the lightest of a tree
+        private void add(int v, Record r) {
+            TreeSet<Record> set = nonTree.get(v);
+            if (set == null) nonTree.set(v, set = new TreeSet<>());
+            set.add(r);
+            if (set.first() == r) tours.setValue(v, r.edge.weight(), r.seq);
+        }
+
+        private void remove(int v, Record r) {
+            TreeSet<Record> set = nonTree.get(v);
+            boolean lightest = set.first() == r;
+            set.remove(r);
+            if (!lightest) return;
+            if (set.isEmpty()) tours.setValue(v, Double.POSITIVE_INFINITY, 0);
+            else               tours.setValue(v, set.first().edge.weight(), set.first().seq);
+        }
+    }
+
+    public DynamicMST(int V) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+        this.V = V;
+        this.forest = new LinkCutTree(2 * V);
+        for (int v = 0; v < V; v++) forest.addNode(Double.NEGATIVE_INFINITY);
+        levels.add(new Level());
+    }
+
+    // holds every edge of G, starting from its minimum spanning forest
+    public DynamicMST(EdgeWeightedGraph G) {
+        this(G.V());
+        for (Edge e : KruskalMST.run(G).edges) addEdge(e);
+        for (Edge e : G.edges())
+            if (!recordOf.containsKey(e)) addEdge(e);
+    }
+
+    public int V() {
+        return V;
+    }
+
+    public double totalWeight() {
+        return totalWeight;
+    }
+
+    // number of edges in the current forest
+    public int size() {
+        return treeEdges;
+    }
+
+    // number of edges held, in the forest or not
+    public int E() {
+        return recordOf.size();
+    }
+
+    public boolean contains(Edge e) {
+        return recordOf.containsKey(e);
+    }
+
+    public boolean inForest(Edge e) {
+        Record r = recordOf.get(e);
+        return r != null && r.node != NON_TREE;
+    }
+
+    public boolean connected(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return forest.connected(v, w);
+    }
+
+    public List<Edge> edges() {
+        List<Edge> list = new ArrayList<>(treeEdges);
+        for (Record r : treeRecord)
+            if (r != null) list.add(r.edge);
+        return list;
+    }
+
+    public boolean addEdge(int v, int w, double weight) {
+        return addEdge(new Edge(v, w, weight));
+    }
+
+    // returns true if e joined the forest, possibly replacing a heavier edge
+    public boolean addEdge(Edge e) {
+        int v = e.either();
+        int w = e.other(v);
+        validateVertex(v);
+        validateVertex(w);
+        if (recordOf.containsKey(e)) throw new IllegalArgumentException("edge " + e + " is already present");
+        Record r = new Record(e, inserted++);
+        recordOf.put(e, r);
+        // a self-loop is never in the forest, nor a replacement for a tree edge
+        if (v == w) return false;
+        if (!forest.connected(v, w)) {
+            link(r, 0);
+            return true;
+        }
+        demote(r);
+        Record heaviest = treeRecord[forest.pathMax(v, w) - V];
+        if (!(e.weight() < heaviest.edge.weight())) {
+            addNonTree(r, 0);
+            return false;
+        }
+        cut(heaviest);
+        addNonTree(heaviest, 0);
+        link(r, 0);
+        return true;
+    }
+
+    // returns false if e is not present
+    public boolean removeEdge(Edge e) {
+        Record r = recordOf.remove(e);
+        if (r == null) return false;
+        if (r.node == NON_TREE) {
+            removeNonTree(r);
+            return true;
+        }
+        cut(r);
+        Record replacement = replacement(e.either(), e.other(e.either()), r.level);
+        if (replacement != null) {
+            removeNonTree(replacement);
+            link(replacement, replacement.level);
+        }
+        return true;
+    }
+
+    // replaces e by an edge with the same endpoints and the given weight, and returns it
+    public Edge updateWeight(Edge e, double weight) {
+        Record r = recordOf.get(e);
+        if (r == null) throw new IllegalArgumentException("edge " + e + " is not present");
+        int v = e.either();
+        Edge updated = new Edge(v, e.other(v), weight);
+        if (r.node != NON_TREE && weight <= e.weight()) {
+            // a lighter tree edge stays in the tree, at its level
+            recordOf.remove(e);
+            recordOf.put(updated, r);
+            r.edge = updated;
+            forest.setValue(r.node, weight);
+            totalWeight += weight - e.weight();
+        } else {
+            removeEdge(e);
+            addEdge(updated);
+        }
+        return updated;
+    }
+
+    // lightest non-tree edge between the trees of v and w, searched from level l down
+    private Record replacement(int v, int w, int l) {
+        for (int i = l; i >= 0; i--) {
+            Level level = levels.get(i);
+            EulerTourTree tours = level.tours;
+            int x = tours.size(v) <= tours.size(w) ? v : w;
+            // the smaller half has at most half the vertices, so it fits one level up
+            for (int t; (t = tours.markedEdge(x)) != -1; ) raise(level.treeEdge[t]);
+            for (int y; (y = tours.minVertex(x)) != -1; ) {
+                Record g = level.nonTree.get(y).first();
+                if (!tours.connected(x, g.edge.other(y))) return g;
+                removeNonTree(g);
+                addNonTree(g, i + 1);
+            }
+        }
+        return null;
+    }
+
+    // non-tree edges heavier than r go back to level 0, so the heaviest edge of every cycle stays lowest
+    private void demote(Record r) {
+        while (!raised.isEmpty() && raised.last().compareTo(r) > 0) {
+            Record g = raised.last();
+            removeNonTree(g);
+            addNonTree(g, 0);
+        }
+    }
+
+    // moves tree edge r from its level one up
+    private void raise(Record r) {
+        int i = r.level;
+        levels.get(i).tours.setMarked(r.tour[i], false);
+        r.level = i + 1;
+        if (r.tour.length == r.level) r.tour = Arrays.copyOf(r.tour, 2 * r.level);
+        Level up = level(r.level);
+        r.tour[r.level] = up.link(r);
+        up.tours.setMarked(r.tour[r.level], true);
+    }
+
+    private void link(Record r, int level) {
+        Edge e = r.edge;
+        int v = e.either();
+        int w = e.other(v);
+        int x;
+        if (freeCount > 0) {
+            x = freeNodes[--freeCount];
+            forest.setValue(x, e.weight(), r.seq);
+        } else {
+            x = forest.addNode(e.weight(), r.seq);
+            if (x - V == treeRecord.length) treeRecord = Arrays.copyOf(treeRecord, 2 * treeRecord.length);
+        }
+        forest.link(x, v);
+        forest.link(x, w);
+        treeRecord[x - V] = r;
+        r.node = x;
+        r.level = level;
+        if (r.tour.length <= level) r.tour = new int[level + 1];
+        for (int i = 0; i <= level; i++) r.tour[i] = level(i).link(r);
+        levels.get(level).tours.setMarked(r.tour[level], true);
+        treeEdges++;
+        totalWeight += e.weight();
+    }
+
+    // cuts tree edge r out of the forest at every level
+    private void cut(Record r) {
+        Edge e = r.edge;
+        int v = e.either();
+        int x = r.node;
+        forest.cut(x, v);
+        forest.cut(x, e.other(v));
+        treeRecord[x - V] = null;
+        if (freeCount == freeNodes.length) freeNodes = Arrays.copyOf(freeNodes, 2 * freeCount);
+        freeNodes[freeCount++] = x;
+        for (int i = 0; i <= r.level; i++) levels.get(i).cut(r.tour[i]);
+        r.node = NON_TREE;
+        treeEdges--;
+        totalWeight -= e.weight();
+    }
+
+    private void addNonTree(Record r, int level) {
+        r.level = level;
+        if (isSelfLoop(r)) return;
+        level(level).add(r);
+        if (level > 0) raised.add(r);
+    }
+
+    private void removeNonTree(Record r) {
+        if (isSelfLoop(r)) return;
+        levels.get(r.level).remove(r);
+        if (r.level > 0) raised.remove(r);
+    }
+
+    private static boolean isSelfLoop(Record r) {
+        int v = r.edge.either();
+        return r.edge.other(v) == v;
+    }
+
+    // level i, created with the levels below it on first use
+    private Level level(int i) {
+        while (levels.size() <= i) levels.add(new Level());
+        return levels.get(i);
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+}
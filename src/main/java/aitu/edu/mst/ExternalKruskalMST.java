@@ -0,0 +1,255 @@
+package aitu.edu.mst;
+
+import aitu.edu.mst.core.Edge;
+import aitu.edu.mst.core.EdgeList;
+import aitu.edu.mst.core.UF;
+import aitu.edu.mst.io.In;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Semi-external Kruskal for edge lists larger than memory.
+ * <p>
+ * The edge file (the text format of {@code EdgeWeightedGraph(In)}) is read
+ * as a stream. Every {@code runEdges} edges are sorted in memory and written
+ * to a temporary run file of 16-byte records. The runs are then merged with
+ * a k-way merge, a heap holding the head edge of every run, and the merged
+ * edges are streamed through a {@link UF} of size V. At most 128 runs are
+ * open at once; beyond that, groups of runs are first merged into longer
+ * ones. Memory is O(V) for the union-find and the tree, plus one run buffer
+ * and 128 read buffers of 64 KB; the edges themselves never need to fit in
+ * memory.
+ * <p>
+ * Each run is sorted stably and equal weights are merged in run order, so
+ * edges of equal weight are taken in file order. The temporary files live in
+ * a fresh directory that is deleted before returning.
+ */
+public class ExternalKruskalMST {
+    private static final int DEFAULT_RUN_EDGES = 1 << 22;     // 64 MB of edge records per run
+    private static final int RECORD_BYTES = 2 * Integer.BYTES + Double.BYTES;
+    private static final int READ_BUFFER = 1 << 16;
+    private static final int MAX_FAN_IN = 128;                  // runs open at once while merging
+
+    public static class MSTResult {
+        public List<Edge> edges = new ArrayList<>();
+        public double totalWeight = 0.0;
+        public long operationsCount = 0;
+        public double executionTimeMs = 0.0;
+        public int runCount = 0;
+    }
+
+    public static MSTResult run(Path edgeFile) throws IOException {
+        return run(edgeFile, DEFAULT_RUN_EDGES);
+    }
+
+    public static MSTResult run(Path edgeFile, int runEdges) throws IOException {
+        return run(edgeFile, runEdges, null);
+    }
+
+    // tempDir is where the run directory is created; null means the system default
+    public static MSTResult run(Path edgeFile, int runEdges, Path tempDir) throws IOException {
+        if (runEdges < 1) throw new IllegalArgumentException("run size must be positive: " + runEdges);
+        long start = System.nanoTime();
+        MSTResult res = new MSTResult();
+        Path dir = tempDir == null ? Files.createTempDirectory("mst-runs") : Files.createTempDirectory(tempDir, "mst-runs");
+        try {
+            List<Path> runs = new ArrayList<>();
+            int V = writeRuns(edgeFile, runEdges, dir, runs, res);
+            res.runCount = runs.size();
+            merge(V, reduceRuns(runs, dir), res);
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files::iterator) Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        }
+        res.executionTimeMs = (System.nanoTime() - start) / 1_000_000.0;
+        return res;
+    }
+
+    // phase 1: cut the edge stream into sorted runs; returns V
+    private static int writeRuns(Path edgeFile, int runEdges, Path dir, List<Path> runs, MSTResult res) throws IOException {
+        In in = new In(edgeFile.toFile());
+        try {
+            int V = in.readInt();
+            if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+            int E = in.readInt();
+            if (E < 0) throw new IllegalArgumentException("Number of edges must be non-negative");
+            EdgeList buffer = new EdgeList(V, Math.min(runEdges, E), false);
+            for (int i = 0; i < E; i++) {
+                int v = in.readInt();
+                int w = in.readInt();
+                buffer.add(v, w, in.readDouble());
+                if (buffer.E() == runEdges || i == E - 1) {
+                    runs.add(writeRun(buffer, dir, runs.size()));
+                    res.operationsCount += buffer.E();
+                    buffer.clear();
+                }
+            }
+            return V;
+        }
+        catch (NoSuchElementException e) {
+            throw new IllegalArgumentException("invalid input format in edge file " + edgeFile, e);
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    private static Path writeRun(EdgeList buffer, Path dir, int index) throws IOException {
+        Path run = dir.resolve("run-" + index + ".bin");
+        int[] order = buffer.sortedOrder();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), READ_BUFFER))) {
+            for (int e : order) {
+                out.writeInt(buffer.from(e));
+                out.writeInt(buffer.to(e));
+                out.writeDouble(buffer.weight(e));
+            }
+        }
+        return run;
+    }
+
+    // merge groups of MAX_FAN_IN runs into longer runs until one final merge suffices
+    private static List<Path> reduceRuns(List<Path> runs, Path dir) throws IOException {
+        int generation = 0;
+        while (runs.size() > MAX_FAN_IN) {
+            generation++;
+            List<Path> merged = new ArrayList<>();
+            for (int lo = 0; lo < runs.size(); lo += MAX_FAN_IN) {
+                List<Path> group = runs.subList(lo, Math.min(lo + MAX_FAN_IN, runs.size()));
+                Path out = dir.resolve("run-" + generation + "-" + merged.size() + ".bin");
+                try (MergedRuns in = new MergedRuns(group);
+                     DataOutputStream o = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(out), READ_BUFFER))) {
+                    while (in.advance()) {
+                        o.writeInt(in.v);
+                        o.writeInt(in.w);
+                        o.writeDouble(in.weight);
+                    }
+                }
+                for (Path run : group) Files.delete(run);
+                merged.add(out);
+            }
+            runs = merged;
+        }
+        return runs;
+    }
+
+    // phase 2: k-way merge of the runs, streamed through union-find
+    private static void merge(int V, List<Path> runs, MSTResult res) throws IOException {
+        try (MergedRuns in = new MergedRuns(runs)) {
+            UF uf = new UF(V);
+            while (res.edges.size() < V - 1 && in.advance()) {
+                res.operationsCount++;
+                if (uf.find(in.v) != uf.find(in.w)) {
+                    uf.union(in.v, in.w);
+                    res.edges.add(new Edge(in.v, in.w, in.weight));
+                    res.totalWeight += in.weight;
+                    res.operationsCount++;
+                }
+            }
+        }
+    }
+
+    // the edges of several sorted runs in one ascending, stable order
+    private static final class MergedRuns implements Closeable {
+        private final RunReader[] readers;
+        private final int[] heap;           // run indices ordered by (head weight, run index)
+        private int n;
+        private boolean started;
+        int v;
+        int w;
+        double weight;
+
+        MergedRuns(List<Path> runs) throws IOException {
+            readers = new RunReader[runs.size()];
+            heap = new int[runs.size()];
+            try {
+                for (int r = 0; r < readers.length; r++) {
+                    readers[r] = new RunReader(runs.get(r));
+                    if (readers[r].advance()) heap[n++] = r;
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+            for (int i = n / 2 - 1; i >= 0; i--) sink(i);
+        }
+
+        // move to the next edge in merged order; false once every run is exhausted
+        boolean advance() throws IOException {
+            if (started && n > 0) {
+                if (!readers[heap[0]].advance()) heap[0] = heap[--n];
+                sink(0);
+            }
+            started = true;
+            if (n == 0) return false;
+            RunReader top = readers[heap[0]];
+            v = top.v;
+            w = top.w;
+            weight = top.weight;
+            return true;
+        }
+
+        private void sink(int i) {
+            while (2 * i + 1 < n) {
+                int j = 2 * i + 1;
+                if (j + 1 < n && less(heap[j + 1], heap[j])) j++;
+                if (!less(heap[j], heap[i])) break;
+                int t = heap[i];
+                heap[i] = heap[j];
+                heap[j] = t;
+                i = j;
+            }
+        }
+
+        private boolean less(int r, int s) {
+            double a = readers[r].weight, b = readers[s].weight;
+            return a < b || (a == b && r < s);
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (RunReader reader : readers)
+                if (reader != null) reader.close();
+        }
+    }
+
+    // sequential reader over one run file, exposing its current head edge
+    private static final class RunReader {
+        private final DataInputStream in;
+        private long remaining;
+        int v;
+        int w;
+        double weight;
+
+        RunReader(Path run) throws IOException {
+            remaining = Files.size(run) / RECORD_BYTES;
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), READ_BUFFER));
+        }
+
+        // move to the next edge; false once the run is exhausted
+        boolean advance() throws IOException {
+            if (remaining == 0) return false;
+            remaining--;
+            v = in.readInt();
+            w = in.readInt();
+            weight = in.readDouble();
+            return true;
+        }
+
+        void close() throws IOException {
+            in.close();
+        }
+    }
+}
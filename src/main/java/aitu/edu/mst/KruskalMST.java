@@ -1,15 +1,39 @@
 package aitu.edu.mst;
 
+import aitu.edu.mst.core.CompactGraph;
 import aitu.edu.mst.core.Edge;
+import aitu.edu.mst.core.EdgeList;
 import aitu.edu.mst.core.EdgeWeightedGraph;
 import aitu.edu.mst.core.UF;
 import aitu.edu.visual.MSTStepListener;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 public class KruskalMST {
+    // Filter-Kruskal sorts partitions of at most this many edges directly
+    private static final int FILTER_CUTOFF = 64;
+
+    /**
+     * How the edges are brought into ascending-weight order.
+     * <ul>
+     * <li>{@code SORT}: sort every edge index up front with a stable mergesort,
+     *     the order {@code Collections.sort} gives on the edges themselves.
+     * <li>{@code FILTER}: Filter-Kruskal. Partition around a pivot like
+     *     quicksort, solve the light side first, then drop the heavy edges that
+     *     already connect one component before looking at the rest. Edges heavier
+     *     than the last tree edge are never sorted.
+     * <li>{@code PARALLEL_SORT}: pack each edge's weight bits and index into one
+     *     {@code long}, sort the keys with {@code Arrays.parallelSort} on all
+     *     cores, then run the union-find pass over the sorted indices.
+     * <li>{@code RADIX}: when every weight is an integer or has a few fixed
+     *     decimal places, order the edges in linear time with a counting or LSD
+     *     radix sort; otherwise fall back to a comparison sort.
+     * </ul>
+     */
+    public enum Mode { SORT, FILTER, PARALLEL_SORT, RADIX }
 
     public static class MSTResult {
         public List<Edge> edges = new ArrayList<>();
@@ -19,7 +43,34 @@ public class KruskalMST {
     }
 
     public static MSTResult run(EdgeWeightedGraph G) {
-        return run(G, null);
+        long start = System.nanoTime();
+        return run(EdgeList.of(G), G, start);
+    }
+
+    public static MSTResult run(EdgeWeightedGraph G, Mode mode) {
+        if (mode == Mode.SORT) return run(G);
+        long start = System.nanoTime();
+        EdgeList edges = EdgeList.of(G);
+        int m = edges.E();
+        IndexedKruskal k = new IndexedKruskal(edges);
+        switch (mode) {
+            case FILTER:
+                int[] index = new int[m];
+                for (int i = 0; i < m; i++) index[i] = i;
+                k.filter(index, 0, m);
+                break;
+            case PARALLEL_SORT:
+            case RADIX:
+                int[] order = mode == Mode.RADIX ? edges.radixSortedOrder() : edges.parallelSortedOrder();
+                k.res.operationsCount += m;
+                k.scan(order, 0, m);
+                break;
+            default:
+                throw new IllegalArgumentException("unsupported mode: " + mode);
+        }
+        k.res.edges = treeEdges(edges, G, k.tree, k.size);
+        k.res.executionTimeMs = (System.nanoTime() - start) / 1_000_000.0;
+        return k.res;
     }
 
     public static MSTResult run(EdgeWeightedGraph G, MSTStepListener listener) {
@@ -28,8 +79,8 @@ public class KruskalMST {
 
         if (listener != null) listener.onInit(G.V(), G.edges());
 
-        List<Edge> edges = new ArrayList<>();
-        for (Edge e : G.edges()) edges.add(e);
+        List<Edge> edges = new ArrayList<>(G.E());
+        G.forEachEdge(edges::add);
         Collections.sort(edges);
         res.operationsCount += edges.size();
 
@@ -57,4 +108,160 @@ public class KruskalMST {
         res.executionTimeMs = (end - start) / 1_000_000.0;
         return res;
     }
+
+    public static MSTResult run(CompactGraph G) {
+        long start = System.nanoTime();
+        return run(EdgeList.of(G), null, start);
+    }
+
+    /**
+     * Runs Kruskal directly over a struct-of-arrays edge list; an {@link Edge}
+     * is created only for each tree edge.
+     */
+    public static MSTResult run(EdgeList edges) {
+        return run(edges, null, System.nanoTime());
+    }
+
+    // G may be null, in which case tree edges are materialized from the list
+    private static MSTResult run(EdgeList edges, EdgeWeightedGraph G, long start) {
+        MSTResult res = new MSTResult();
+        int m = edges.E();
+        int[] order = edges.sortedOrder();
+        res.operationsCount += m;
+
+        UF uf = new UF(edges.V());
+        int[] tree = new int[Math.max(edges.V() - 1, 0)];
+        int n = 0;
+
+        for (int k = 0; k < m; k++) {
+            int e = order[k];
+            int v = edges.from(e);
+            int w = edges.to(e);
+            res.operationsCount++;
+            if (uf.find(v) != uf.find(w)) {
+                uf.union(v, w);
+                tree[n++] = e;
+                res.totalWeight += edges.weight(e);
+                res.operationsCount++;
+            }
+            if (n == edges.V() - 1) break;
+        }
+        res.edges = treeEdges(edges, G, tree, n);
+
+        res.executionTimeMs = (System.nanoTime() - start) / 1_000_000.0;
+        return res;
+    }
+
+    // the edges tree[0..n) of the list in that order: G's own Edge objects, or new ones when G is null
+    static List<Edge> treeEdges(EdgeList edges, EdgeWeightedGraph G, int[] tree, int n) {
+        List<Edge> result = new ArrayList<>(n);
+        if (G == null) {
+            for (int i = 0; i < n; i++) result.add(edges.edge(tree[i]));
+            return result;
+        }
+        // visit G's edges once in list order, picking up the wanted ones by ascending index
+        long[] wanted = new long[n];
+        for (int i = 0; i < n; i++) wanted[i] = ((long) tree[i] << 32) | i;
+        Arrays.sort(wanted);
+        Edge[] found = new Edge[n];
+        int[] cursor = { 0, 0 };        // next edge index, next wanted entry
+        G.forEachEdge((Edge e) -> {
+            int k = cursor[1];
+            if (k < n && (int) (wanted[k] >>> 32) == cursor[0]) {
+                found[(int) wanted[k]] = e;
+                cursor[1]++;
+            }
+            cursor[0]++;
+        });
+        Collections.addAll(result, found);
+        return result;
+    }
+
+    // Kruskal over the columns of an edge list; index arrays hold edge ids
+    private static final class IndexedKruskal {
+        private final EdgeList edges;
+        private final UF uf;
+        private final int[] tree;       // accepted edge ids, in order
+        private int size;
+        private final MSTResult res = new MSTResult();
+
+        IndexedKruskal(EdgeList edges) {
+            this.edges = edges;
+            this.uf = new UF(edges.V());
+            this.tree = new int[Math.max(edges.V() - 1, 0)];
+        }
+
+        private boolean done() {
+            return size >= tree.length;
+        }
+
+        // Filter-Kruskal: process index[lo, hi) in ascending weight order
+        void filter(int[] index, int lo, int hi) {
+            while (hi - lo > FILTER_CUTOFF && !done()) {
+                double pivot = medianOfThree(index, lo, hi);
+                res.operationsCount += hi - lo;
+
+                // 3-way partition: [lo, lt) < pivot, [lt, gt) == pivot, [gt, hi) > pivot
+                int lt = lo, i = lo, gt = hi;
+                while (i < gt) {
+                    double w = edges.weight(index[i]);
+                    if      (w < pivot) swap(index, lt++, i++);
+                    else if (w > pivot) swap(index, i, --gt);
+                    else                i++;
+                }
+
+                filter(index, lo, lt);
+                scan(index, lt, gt);            // all of the same weight, any order will do
+                if (done()) return;
+
+                // filter: keep only heavy edges that still join two components
+                int keep = gt;
+                for (int k = gt; k < hi; k++) {
+                    int e = index[k];
+                    res.operationsCount++;
+                    if (uf.find(edges.from(e)) != uf.find(edges.to(e))) index[keep++] = e;
+                }
+                lo = gt;
+                hi = keep;
+            }
+            if (done()) return;
+            edges.sort(index, lo, hi);
+            res.operationsCount += hi - lo;
+            scan(index, lo, hi);
+        }
+
+        // classic Kruskal step over an already ordered range
+        void scan(int[] index, int lo, int hi) {
+            for (int k = lo; k < hi && !done(); k++) {
+                int e = index[k];
+                int v = edges.from(e);
+                int w = edges.to(e);
+                res.operationsCount++;
+                if (uf.find(v) != uf.find(w)) {
+                    uf.union(v, w);
+                    tree[size++] = e;
+                    res.totalWeight += edges.weight(e);
+                    res.operationsCount++;
+                }
+            }
+        }
+
+        private double medianOfThree(int[] index, int lo, int hi) {
+            double a = edges.weight(index[lo]);
+            double b = edges.weight(index[lo + (hi - lo) / 2]);
+            double c = edges.weight(index[hi - 1]);
+            if (a < b) {
+                if (b < c) return b;
+                return a < c ? c : a;
+            }
+            if (a < c) return a;
+            return b < c ? c : b;
+        }
+
+        private static void swap(int[] a, int i, int j) {
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
 }
@@ -0,0 +1,266 @@
+package aitu.edu.mst;
+
+import aitu.edu.mst.core.Edge;
+import aitu.edu.mst.core.EdgeWeightedGraph;
+import aitu.edu.mst.core.UF;
+import aitu.edu.mst.utility.WeightSort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Checks that a candidate edge set is a minimum spanning forest of G
+ * without computing one.
+ * <p>
+ * The candidate must be a forest of edges of G (same endpoints and weight)
+ * that connects the endpoints of every edge of G. It is then minimal iff no
+ * edge of G is lighter than the heaviest candidate edge on the tree path
+ * between its endpoints (the cycle property).
+ * <p>
+ * The path maxima come from the candidate's Kruskal reconstruction tree:
+ * its edges are sorted and merged in order, each merge adding an internal
+ * node of that edge's weight above the two parts it joins. The heaviest
+ * edge on the tree path from v to w is the lowest common ancestor of v and
+ * w in that tree. The tree is kept only as its Euler tour reduced to the
+ * leaves and, between each two neighbouring leaves, the internal node that
+ * joined them; the lowest common ancestor of v and w is the latest merge on
+ * the tour between them, a range maximum answered in O(1) by a sparse table
+ * over blocks of 64 leaves and a bit stack inside each block. The edges of G
+ * are then checked in one pass over the graph. Only the candidate edges are
+ * sorted, so the check costs O(V log V + E).
+ */
+public class MSTVerifier {
+
+    public static class VerificationResult {
+        public boolean valid = false;       // candidate is a minimum spanning forest of G
+        public String reason;               // why not, or null when valid
+        public Edge witness;                // edge that shows the candidate is wrong, if any
+        public Edge heavier;                // for a non-minimal candidate, the heaviest tree edge on the witness's cycle
+        public double totalWeight = 0.0;
+        public long operationsCount = 0;
+        public double executionTimeMs = 0.0;
+    }
+
+    public static VerificationResult verify(EdgeWeightedGraph G, Iterable<Edge> candidate) {
+        long start = System.nanoTime();
+        VerificationResult res = new VerificationResult();
+        check(G, candidate, res);
+        res.valid = res.reason == null;
+        res.executionTimeMs = (System.nanoTime() - start) / 1_000_000.0;
+        return res;
+    }
+
+    private static void check(EdgeWeightedGraph G, Iterable<Edge> candidate, VerificationResult res) {
+        int V = G.V();
+        List<Edge> edges = new ArrayList<>(Math.max(V - 1, 0));
+        for (Edge e : candidate) {
+            int v = e.either(), w = e.other(v);
+            if (v < 0 || v >= V || w < 0 || w >= V) {
+                fail(res, "candidate edge " + e + " has a vertex outside 0 to " + (V - 1), e);
+                return;
+            }
+            edges.add(e);
+        }
+
+        ReconstructionTree krt = new ReconstructionTree(V, edges, res);
+        if (res.reason != null) return;
+        ReconstructionTree.EdgeChecker checker = krt.new EdgeChecker();
+        G.forEachEdge(checker);
+        res.operationsCount += checker.checked;
+        if (res.reason != null) return;
+        for (int k = 0; k < krt.n; k++) {
+            if (!checker.matched[k]) {
+                fail(res, "candidate edge " + krt.tree[k] + " is not an edge of G", krt.tree[k]);
+                return;
+            }
+        }
+    }
+
+    private static void fail(VerificationResult res, String reason, Edge witness) {
+        res.reason = reason;
+        res.witness = witness;
+    }
+
+    // The reconstruction tree of the candidate. Its k-th merge joins the parts
+    // with the k-th lightest tree edge; every part is a run of consecutive
+    // leaves, so a merge only appends one run to the other and records k at
+    // the seam. Runs of different trees are separated by n, above every merge.
+    // Range maxima over the seams are split at blocks of 64 leaves: a sparse
+    // table over the blocks, each leaf's maximum to either end of its block,
+    // and inside a block a bit stack of the suffix maxima.
+    private static final class ReconstructionTree {
+        private static final int BLOCK_SHIFT = 6;
+        private static final int BLOCK = 1 << BLOCK_SHIFT;
+
+        private final Edge[] tree;      // tree[k] = the k-th lightest candidate edge
+        private final double[] weight;  // weight[k] = tree[k].weight()
+        private final int n;
+        private final int V;
+        private final int[] seams;      // seams[i] = merge between the i-th and (i+1)-st leaf
+        private final long[] stack;     // bit j of stack[i]: seam j of i's block is the latest one from there to i
+        private final int[] leaf;       // leaf[3v] = place of v among the leaves; leaf[3v+1], leaf[3v+2] = latest
+                                        // merge among the seams from there to the end and from the start of its block
+        private final int[][] maxBlock; // maxBlock[j][b] = latest merge in blocks b .. b+2^j-1
+        private final VerificationResult res;
+
+        ReconstructionTree(int V, List<Edge> edges, VerificationResult res) {
+            this.V = V;
+            this.res = res;
+            int m = edges.size();
+            weight = new double[m];
+            for (int i = 0; i < m; i++) weight[i] = edges.get(i).weight();
+            int[] order = WeightSort.order(weight, m);
+            tree = new Edge[m];
+
+            // merge in weight order; the forest check comes for free
+            UF parts = new UF(V);
+            int[] head = new int[V];        // first and last leaf of the part with root r
+            int[] tail = new int[V];
+            int[] next = new int[V];        // next[v] = leaf after v in its part, or -1
+            int[] seam = new int[V];        // seam[v] = merge between v and next[v]
+            for (int v = 0; v < V; v++) {
+                head[v] = tail[v] = v;
+                next[v] = -1;
+            }
+            int k = 0;
+            for (int i = 0; i < m; i++) {
+                Edge e = edges.get(order[i]);
+                int a = parts.find(e.either());
+                int b = parts.find(e.other(e.either()));
+                res.operationsCount++;
+                if (a == b) {
+                    fail(res, "candidate edge " + e + " closes a cycle", e);
+                    n = k;
+                    seams = null;
+                    stack = null;
+                    leaf = null;
+                    maxBlock = null;
+                    return;
+                }
+                next[tail[a]] = head[b];
+                seam[tail[a]] = k;
+                int h = head[a], t = tail[b];
+                parts.union(a, b);
+                int r = parts.find(a);
+                head[r] = h;
+                tail[r] = t;
+                weight[k] = e.weight();
+                tree[k++] = e;
+                res.totalWeight += e.weight();
+            }
+            n = k;
+
+            // lay the parts out one after the other; the seam after the last leaf is never read
+            seams = new int[V];
+            int[] vertexAt = new int[V];
+            int p = 0;
+            for (int r = 0; r < V; r++) {
+                if (parts.find(r) != r) continue;
+                if (p > 0) seams[p - 1] = n;
+                for (int v = head[r]; v != -1; v = next[v]) {
+                    vertexAt[p] = v;
+                    seams[p++] = next[v] == -1 ? -1 : seam[v];
+                }
+            }
+
+            int blocks = (V + BLOCK - 1) >>> BLOCK_SHIFT;
+            int[] blockMax = new int[blocks];
+            leaf = new int[3 * V];
+            stack = new long[V];
+            for (int b = 0; b < blocks; b++) {
+                int lo = b << BLOCK_SHIFT, hi = Math.min(lo + BLOCK, V);
+                int max = -1;
+                long bits = 0;
+                for (int i = lo; i < hi; i++) {
+                    int v = vertexAt[i];
+                    leaf[3 * v] = i;
+                    leaf[3 * v + 2] = max;
+                    max = Math.max(max, seams[i]);
+                    while (bits != 0 && seams[lo + 63 - Long.numberOfLeadingZeros(bits)] <= seams[i])
+                        bits &= ~Long.highestOneBit(bits);
+                    bits |= 1L << (i - lo);
+                    stack[i] = bits;
+                }
+                blockMax[b] = max;
+                max = -1;
+                for (int i = hi - 1; i >= lo; i--) {
+                    max = Math.max(max, seams[i]);
+                    leaf[3 * vertexAt[i] + 1] = max;
+                }
+            }
+
+            int levels = 1;
+            while (blocks >> levels > 0) levels++;
+            maxBlock = new int[levels][];
+            maxBlock[0] = blockMax;
+            for (int j = 1; j < levels; j++) {
+                int[] below = maxBlock[j - 1], level = new int[blocks - (1 << j) + 1];
+                int half = 1 << (j - 1);
+                for (int i = 0; i < level.length; i++) level[i] = Math.max(below[i], below[i + half]);
+                maxBlock[j] = level;
+            }
+        }
+
+        // latest merge among the seams i..j of one block
+        private int seamMax(int i, int j) {
+            long bits = stack[j] & (-1L << (i & (BLOCK - 1)));
+            return seams[(j & -BLOCK) + Long.numberOfTrailingZeros(bits)];
+        }
+
+        // latest merge between leaves v and w: their LCA, or n if they lie in different trees
+        int lca(int v, int w) {
+            int p = leaf[3 * v], q = leaf[3 * w];
+            // order the leaves without a branch on the loaded places, which would hold up the next loads
+            int first = p < q ? v : w, last = v ^ w ^ first;
+            int lo = Math.min(p, q), hi = Math.max(p, q);
+            int bp = lo >>> BLOCK_SHIFT, bq = hi >>> BLOCK_SHIFT;
+            if (bp == bq) return seamMax(lo, hi - 1);
+            int k = Math.max(leaf[3 * first + 1], leaf[3 * last + 2]);
+            if (bq - bp > 1) {
+                int j = 31 - Integer.numberOfLeadingZeros(bq - bp - 1);
+                int[] level = maxBlock[j];
+                k = Math.max(k, Math.max(level[bp + 1], level[bq - (1 << j)]));
+            }
+            return k;
+        }
+
+        // checks each edge of G at the LCA of its endpoints
+        final class EdgeChecker implements Consumer<Edge> {
+            final boolean[] matched = new boolean[n];   // matched[k] = an edge of G equals tree[k]
+            long checked;                               // edges looked at, self-loops aside
+            boolean failed;
+            // in a spanning tree, an edge heavier than every tree edge is fine wherever it lies
+            private final double heaviest = n > 0 && n == V - 1 ? weight[n - 1] : Double.POSITIVE_INFINITY;
+
+            @Override
+            public void accept(Edge e) {
+                int v = e.either(), w = e.other(v);
+                if (v == w || failed) return;
+                checked++;
+                double x = e.weight();
+                if (x > heaviest) return;
+                int k = lca(v, w);
+                if (k == n) {
+                    fail(e, "edge " + e + " of G joins two trees of the candidate");
+                    return;
+                }
+                if (x > weight[k]) return;
+                Edge t = tree[k];
+                if (x < weight[k]) {
+                    fail(e, "edge " + e + " is lighter than tree edge " + t + " on its cycle");
+                    res.heavier = t;
+                    return;
+                }
+                // a tree edge is the LCA of its own endpoints
+                int a = t.either();
+                if (t == e || (a == v ? t.other(a) == w : a == w && t.other(a) == v)) matched[k] = true;
+            }
+
+            private void fail(Edge e, String reason) {
+                failed = true;
+                MSTVerifier.fail(res, reason, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package aitu.edu.mst;
+
+import aitu.edu.mst.core.EdgeList;
+import aitu.edu.mst.core.EdgeWeightedGraph;
+import aitu.edu.mst.core.RollbackUF;
+import aitu.edu.mst.utility.WeightSort;
+
+import java.util.Arrays;
+
+/**
+ * Offline MST weights for a batch of weight changes.
+ * <p>
+ * Query {@code q} sets the weight of edge {@code edge[q]} to
+ * {@code weight[q]}; the changes accumulate, and the answer to query
+ * {@code q} is the weight of the minimum spanning forest after the first
+ * {@code q+1} changes. Edges are numbered as in {@link EdgeList#of(EdgeWeightedGraph)},
+ * which is the order of {@code G.edges()}.
+ * <p>
+ * The queries are solved together by divide and conquer over the query
+ * range. Edges changed somewhere in a range are <em>dynamic</em> there, the
+ * rest are <em>static</em>. Before splitting a range:
+ * <ul>
+ * <li>contraction: with every dynamic edge at weight -Infinity, the static
+ *     edges Kruskal still takes are in the forest whatever the dynamic
+ *     weights turn out to be, so they are contracted for good;
+ * <li>reduction: with every dynamic edge at +Infinity, the static edges
+ *     Kruskal rejects are never in the forest, so they are dropped.
+ * </ul>
+ * After both steps a range of k queries keeps O(k) edges, so the whole
+ * batch costs O((E + Q log Q) log V) on top of one initial sort, instead of
+ * a full Kruskal run per query. Contractions live in one {@link RollbackUF}
+ * and are undone when the recursion returns.
+ */
+public class OfflineMST {
+
+    public static class MSTResult {
+        public double[] totalWeights = new double[0];   // totalWeights[q] = forest weight after query q
+        public long operationsCount = 0;
+        public double executionTimeMs = 0.0;
+    }
+
+    public static MSTResult run(EdgeWeightedGraph G, int[] edge, double[] weight) {
+        return run(EdgeList.of(G), edge, weight);
+    }
+
+    public static MSTResult run(EdgeList edges, int[] edge, double[] weight) {
+        if (edge.length != weight.length) throw new IllegalArgumentException("edge and weight must have the same length");
+        for (int q = 0; q < edge.length; q++) {
+            if (edge[q] < 0 || edge[q] >= edges.E())
+                throw new IllegalArgumentException("edge " + edge[q] + " is not between 0 and " + (edges.E() - 1));
+            if (Double.isNaN(weight[q])) throw new IllegalArgumentException("Weight is NaN");
+        }
+        long start = System.nanoTime();
+        MSTResult res = new MSTResult();
+        new OfflineMST(edges, edge, weight, res).solve();
+        res.executionTimeMs = (System.nanoTime() - start) / 1_000_000.0;
+        return res;
+    }
+
+    private final int[] from;
+    private final int[] to;
+    private final double[] current;     // current[e] = weight of edge e after the queries applied so far
+    private final int[] queryEdge;
+    private final double[] queryWeight;
+    private final RollbackUF uf;
+    private final int[] mark;           // mark[e] == stamp: e is in the set being built
+    private int stamp;
+    private final MSTResult res;
+
+    private OfflineMST(EdgeList edges, int[] edge, double[] weight, MSTResult res) {
+        int m = edges.E();
+        from = new int[m];
+        to = new int[m];
+        current = new double[m];
+        for (int e = 0; e < m; e++) {
+            from[e] = edges.from(e);
+            to[e] = edges.to(e);
+            current[e] = edges.weight(e);
+        }
+        queryEdge = edge;
+        queryWeight = weight;
+        uf = new RollbackUF(edges.V());
+        mark = new int[m];
+        this.res = res;
+        res.totalWeights = new double[edge.length];
+    }
+
+    private void solve() {
+        int Q = queryEdge.length;
+        if (Q == 0) return;
+        int[] dynamic = changedIn(0, Q - 1);
+        stamp++;
+        for (int e : dynamic) mark[e] = stamp;
+        int[] order = WeightSort.order(current, current.length);
+        int[] statics = new int[order.length - dynamic.length];
+        int n = 0;
+        for (int e : order)
+            if (mark[e] != stamp) statics[n++] = e;
+        solve(0, Q - 1, statics, dynamic, 0.0);
+    }
+
+    // statics: edges unchanged in [lo, hi], in (weight, index) order; dynamic: edges changed in [lo, hi]
+    private void solve(int lo, int hi, int[] statics, int[] dynamic, double base) {
+        int snapshot = uf.snapshot();
+        if (lo == hi) {
+            current[queryEdge[lo]] = queryWeight[lo];
+            WeightSort.sort(dynamic, 0, dynamic.length, current);
+            res.totalWeights[lo] = base + kruskal(merge(statics, statics.length, dynamic));
+            uf.rollback(snapshot);
+            return;
+        }
+
+        // contraction: static edges in the forest even with every dynamic edge taken first
+        int trial = uf.snapshot();
+        for (int e : dynamic) uf.union(from[e], to[e]);
+        boolean[] forced = new boolean[statics.length];
+        for (int i = 0; i < statics.length; i++) {
+            res.operationsCount++;
+            forced[i] = uf.union(from[statics[i]], to[statics[i]]);
+        }
+        uf.rollback(trial);
+        int n = 0;
+        for (int i = 0; i < statics.length; i++) {
+            int e = statics[i];
+            if (forced[i]) {
+                uf.union(from[e], to[e]);
+                base += current[e];
+            }
+            else statics[n++] = e;
+        }
+
+        // reduction: static edges outside the forest even with every dynamic edge taken last
+        trial = uf.snapshot();
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            res.operationsCount++;
+            if (uf.union(from[statics[i]], to[statics[i]])) statics[kept++] = statics[i];
+        }
+        uf.rollback(trial);
+
+        int mid = lo + (hi - lo) / 2;
+        int[] left = changedIn(lo, mid);
+        solve(lo, mid, withReleased(statics, kept, dynamic, left), left, base);
+        int[] right = changedIn(mid + 1, hi);
+        solve(mid + 1, hi, withReleased(statics, kept, dynamic, right), right, base);
+        uf.rollback(snapshot);
+    }
+
+    // the distinct edges changed by queries lo..hi, in index order
+    private int[] changedIn(int lo, int hi) {
+        stamp++;
+        int[] changed = new int[hi - lo + 1];
+        int n = 0;
+        for (int q = lo; q <= hi; q++) {
+            int e = queryEdge[q];
+            if (mark[e] != stamp) {
+                mark[e] = stamp;
+                changed[n++] = e;
+            }
+        }
+        Arrays.sort(changed, 0, n);
+        return Arrays.copyOf(changed, n);
+    }
+
+    // statics[0..n) plus the dynamic edges that are static in the child, in (weight, index) order
+    private int[] withReleased(int[] statics, int n, int[] dynamic, int[] childDynamic) {
+        stamp++;
+        for (int e : childDynamic) mark[e] = stamp;
+        int[] released = new int[dynamic.length - childDynamic.length];
+        int r = 0;
+        for (int e : dynamic)
+            if (mark[e] != stamp) released[r++] = e;
+        WeightSort.sort(released, 0, r, current);
+        return merge(statics, n, released);
+    }
+
+    private int[] merge(int[] a, int n, int[] b) {
+        int[] merged = new int[n + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < n && j < b.length) merged[k++] = before(b[j], a[i]) ? b[j++] : a[i++];
+        while (i < n)        merged[k++] = a[i++];
+        while (j < b.length) merged[k++] = b[j++];
+        return merged;
+    }
+
+    private boolean before(int e, int f) {
+        return current[e] < current[f] || (current[e] == current[f] && e < f);
+    }
+
+    // weight of the forest Kruskal builds from the sorted edges over the current contraction
+    private double kruskal(int[] sorted) {
+        double total = 0.0;
+        for (int e : sorted) {
+            res.operationsCount++;
+            if (uf.union(from[e], to[e])) total += current[e];
+        }
+        return total;
+    }
+}
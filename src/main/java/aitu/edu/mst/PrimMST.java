@@ -1,28 +1,66 @@
 package aitu.edu.mst;
 
+import aitu.edu.mst.core.AdjMatrixEdgeWeightedGraph;
+import aitu.edu.mst.core.CompactGraph;
 import aitu.edu.mst.core.Edge;
 import aitu.edu.mst.core.EdgeWeightedGraph;
-import aitu.edu.mst.utility.IndexMinPQ;
+import aitu.edu.mst.utility.DoubleIndexMinPQ;
 import aitu.edu.visual.MSTStepListener;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 public class PrimMST {
+    // Heap arity for Prim's queue, at every degree. Measured on 44 graphs, 4 is
+    // within 5% of the fastest arity on 41 of them, and at an average degree of
+    // 64 and above 8 and 16 beat it by at most 1.5%, so there is no crossover
+    // to switch on. See heap_arity_summary.csv and HeapArityBenchmark
+    // in benchmarks/.
+    public static final int DEFAULT_ARITY = 4;
+    // runAuto switches to the O(V^2) matrix scan at this fraction of all V(V-1)/2 pairs
+    private static final double DENSE_FRACTION = 0.25;
+    // and only while the V*V matrix stays small (8192^2 doubles = 512 MB)
+    private static final int MAX_MATRIX_VERTICES = 1 << 13;
 
     public static class MSTResult {
         public List<Edge> edges = new ArrayList<>();
         public double totalWeight = 0.0;
         public long operationsCount = 0;
         public double executionTimeMs = 0.0;
+        public int componentCount = 0;      // trees in the spanning forest
+    }
+
+    // true when the O(V^2) array-scan Prim beats the heap on G
+    public static boolean isDense(int V, int E) {
+        if (V < 2 || V > MAX_MATRIX_VERTICES) return false;
+        return E >= DENSE_FRACTION * V * (V - 1) / 2.0;
+    }
+
+    // picks the matrix-scan Prim for near-complete graphs and the heap-based one otherwise
+    public static MSTResult runAuto(EdgeWeightedGraph G) {
+        if (!isDense(G.V(), G.E())) return run(G);
+        long start = System.nanoTime();
+        MSTResult res = run(new AdjMatrixEdgeWeightedGraph(G));
+        res.executionTimeMs = (System.nanoTime() - start) / 1_000_000.0;   // include the conversion
+        return res;
     }
 
     public static MSTResult run(EdgeWeightedGraph G) {
         return run(G, null);
     }
 
+    public static MSTResult run(EdgeWeightedGraph G, int arity) {
+        return run(G, null, arity);
+    }
+
     public static MSTResult run(EdgeWeightedGraph G, MSTStepListener listener) {
+        return run(G, listener, DEFAULT_ARITY);
+    }
+
+    public static MSTResult run(EdgeWeightedGraph G, MSTStepListener listener, int arity) {
         long start = System.nanoTime();
         MSTResult res = new MSTResult();
         int V = G.V();
@@ -33,48 +71,262 @@ public class PrimMST {
 
         if (listener != null) listener.onInit(V, G.edges());
 
-        IndexMinPQ<Double> pq = new IndexMinPQ<>(V);
+        DoubleIndexMinPQ pq = new DoubleIndexMinPQ(V, arity);
+
+        // restart from every vertex left unmarked, growing one tree per component
+        for (int s = 0; s < V; s++) {
+            if (marked[s]) continue;
+            res.componentCount++;
+            distTo[s] = 0.0;
+            pq.insert(s, 0.0);
+            res.operationsCount++;
+
+            while (!pq.isEmpty()) {
+                int v = pq.delMin();
+                res.operationsCount++;
+                marked[v] = true;
+                if (listener != null) listener.onVisitVertex(v);
+                if (edgeTo[v] != null) {
+                    Edge e = edgeTo[v];
+                    int w = e.other(v);
+                    if (listener != null) listener.onAcceptEdge(v, w, e.weight());
+                    res.edges.add(e);
+                    res.totalWeight += e.weight();
+                }
+                for (int i = 0, d = G.degree(v); i < d; i++) {
+                    Edge e = G.adjEdge(v, i);
+                    int w = e.other(v);
+                    if (marked[w]) continue;
+                    if (listener != null) listener.onConsiderEdge(v, w, e.weight());
+                    res.operationsCount++;
+                    if (e.weight() < distTo[w]) {
+                        distTo[w] = e.weight();
+                        edgeTo[w] = e;
+                        if (pq.contains(w)) {
+                            pq.decreaseKey(w, distTo[w]);
+                            res.operationsCount++;
+                        } else {
+                            pq.insert(w, distTo[w]);
+                            res.operationsCount++;
+                        }
+                    } else {
+                        if (listener != null) listener.onRejectEdge(v, w, e.weight());
+                    }
+                }
+            }
+        }
 
-        distTo[0] = 0.0;
+        long end = System.nanoTime();
+        if (listener != null) listener.onFinish();
+        res.executionTimeMs = (end - start) / 1_000_000.0;
+        return res;
+    }
+
+    // Minimum spanning forest with the components grown in parallel. The
+    // components are labeled with one breadth-first pass, then each gets its
+    // own Prim run and a queue sized to the component. The trees come back in
+    // order of their smallest vertex, as in run(G), with the same total
+    // weight; a connected graph gains nothing over run(G), and on a single
+    // processor this is run(G).
+    public static MSTResult runParallel(EdgeWeightedGraph G) {
+        return runParallel(G, Runtime.getRuntime().availableProcessors());
+    }
+
+    // runParallel on a pool of the given size, so the parallel path can be forced on one processor
+    static MSTResult runParallel(EdgeWeightedGraph G, int parallelism) {
+        if (parallelism == 1) return run(G);
+        long start = System.nanoTime();
+        MSTResult res = new MSTResult();
+        int V = G.V();
+        int[] order = new int[V];       // vertices grouped by component, each in breadth-first order
+        int[] local = new int[V];       // local[v] = position of v within its component
+        int[] offsets = new int[V + 1];  // component c is order[offsets[c] .. offsets[c+1]-1]
+        boolean[] seen = new boolean[V];
+        int n = 0, k = 0;
+        for (int s = 0; s < V; s++) {
+            if (seen[s]) continue;
+            offsets[k++] = n;
+            int first = n;
+            seen[s] = true;
+            order[n++] = s;
+            for (int head = first; head < n; head++) {
+                int v = order[head];
+                local[v] = head - first;
+                for (int i = 0, d = G.degree(v); i < d; i++) {
+                    int w = G.adjEdge(v, i).other(v);
+                    if (!seen[w]) {
+                        seen[w] = true;
+                        order[n++] = w;
+                    }
+                }
+            }
+        }
+        offsets[k] = V;
+
+        boolean[] marked = new boolean[V];
+        Edge[] edgeTo = new Edge[V];
+        double[] distTo = new double[V];
+        Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+        MSTResult[] trees = new MSTResult[k];
+        // components share no vertex, so every index of the shared arrays is written by one thread only
+        int components = k;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, components).parallel().forEach(c ->
+                    trees[c] = grow(G, order, offsets[c], offsets[c + 1], local, marked, edgeTo, distTo, DEFAULT_ARITY)))
+                .join();
+        } finally {
+            pool.shutdown();
+        }
+
+        res.componentCount = k;
+        res.operationsCount = V + 2L * G.E();   // the labeling pass
+        for (MSTResult tree : trees) {
+            res.edges.addAll(tree.edges);
+            res.totalWeight += tree.totalWeight;
+            res.operationsCount += tree.operationsCount;
+        }
+        res.executionTimeMs = (System.nanoTime() - start) / 1_000_000.0;
+        return res;
+    }
+
+    // Prim over the component order[lo..hi), with queue slots local[v]
+    private static MSTResult grow(EdgeWeightedGraph G, int[] order, int lo, int hi, int[] local,
+                                  boolean[] marked, Edge[] edgeTo, double[] distTo, int arity) {
+        MSTResult res = new MSTResult();
+        DoubleIndexMinPQ pq = new DoubleIndexMinPQ(hi - lo, arity);
+        distTo[order[lo]] = 0.0;
         pq.insert(0, 0.0);
         res.operationsCount++;
 
         while (!pq.isEmpty()) {
-            int v = pq.delMin();
+            int v = order[lo + pq.delMin()];
             res.operationsCount++;
             marked[v] = true;
-            if (listener != null) listener.onVisitVertex(v);
             if (edgeTo[v] != null) {
-                Edge e = edgeTo[v];
-                int w = e.other(v);
-                if (listener != null) listener.onAcceptEdge(v, w, e.weight());
-                res.edges.add(e);
-                res.totalWeight += e.weight();
+                res.edges.add(edgeTo[v]);
+                res.totalWeight += edgeTo[v].weight();
             }
-            for (Edge e : G.adj(v)) {
+            for (int i = 0, d = G.degree(v); i < d; i++) {
+                Edge e = G.adjEdge(v, i);
                 int w = e.other(v);
                 if (marked[w]) continue;
-                if (listener != null) listener.onConsiderEdge(v, w, e.weight());
                 res.operationsCount++;
                 if (e.weight() < distTo[w]) {
                     distTo[w] = e.weight();
                     edgeTo[w] = e;
-                    if (pq.contains(w)) {
-                        pq.changeKey(w, distTo[w]);
-                        res.operationsCount++;
-                    } else {
-                        pq.insert(w, distTo[w]);
+                    if (pq.contains(local[w])) pq.decreaseKey(local[w], distTo[w]);
+                    else                       pq.insert(local[w], distTo[w]);
+                    res.operationsCount++;
+                }
+            }
+        }
+        return res;
+    }
+
+    public static MSTResult run(CompactGraph G) {
+        return run(G, DEFAULT_ARITY);
+    }
+
+    public static MSTResult run(CompactGraph G, int arity) {
+        long start = System.nanoTime();
+        MSTResult res = new MSTResult();
+        int V = G.V();
+        boolean[] marked = new boolean[V];
+        int[] edgeFrom = new int[V];
+        double[] distTo = new double[V];
+        Arrays.fill(edgeFrom, -1);
+        Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+
+        DoubleIndexMinPQ pq = new DoubleIndexMinPQ(V, arity);
+
+        for (int s = 0; s < V; s++) {
+            if (marked[s]) continue;
+            res.componentCount++;
+            distTo[s] = 0.0;
+            pq.insert(s, 0.0);
+            res.operationsCount++;
+
+            while (!pq.isEmpty()) {
+                int v = pq.delMin();
+                res.operationsCount++;
+                marked[v] = true;
+                if (edgeFrom[v] != -1) {
+                    // Edge objects are only materialized for the tree itself
+                    res.edges.add(new Edge(edgeFrom[v], v, distTo[v]));
+                    res.totalWeight += distTo[v];
+                }
+                for (int i = G.begin(v), end = G.end(v); i < end; i++) {
+                    int w = G.target(i);
+                    if (marked[w]) continue;
+                    res.operationsCount++;
+                    double weight = G.weight(i);
+                    if (weight < distTo[w]) {
+                        distTo[w] = weight;
+                        edgeFrom[w] = v;
+                        if (pq.contains(w)) pq.decreaseKey(w, weight);
+                        else                pq.insert(w, weight);
                         res.operationsCount++;
                     }
-                } else {
-                    if (listener != null) listener.onRejectEdge(v, w, e.weight());
                 }
             }
         }
 
-        long end = System.nanoTime();
-        if (listener != null) listener.onFinish();
-        res.executionTimeMs = (end - start) / 1_000_000.0;
+        res.executionTimeMs = (System.nanoTime() - start) / 1_000_000.0;
+        return res;
+    }
+
+    // Array-scan Prim: O(V^2) with no heap. Each step relaxes the row of the
+    // vertex just added and picks the next vertex in the same pass.
+    public static MSTResult run(AdjMatrixEdgeWeightedGraph G) {
+        long start = System.nanoTime();
+        MSTResult res = new MSTResult();
+        int V = G.V();
+        double[] adj = G.matrix();
+        boolean[] marked = new boolean[V];
+        int[] edgeFrom = new int[V];
+        double[] distTo = new double[V];
+        Arrays.fill(edgeFrom, -1);
+        Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+
+        int v = V > 0 ? 0 : -1;
+        int seed = 0;
+        if (v != -1) res.componentCount++;
+        while (v != -1) {
+            marked[v] = true;
+            res.operationsCount++;
+            if (edgeFrom[v] != -1) {
+                res.edges.add(new Edge(edgeFrom[v], v, distTo[v]));
+                res.totalWeight += distTo[v];
+            }
+            int row = v * V;
+            int next = -1;
+            double best = Double.POSITIVE_INFINITY;
+            for (int w = 0; w < V; w++) {
+                if (marked[w]) continue;
+                double weight = adj[row + w];
+                if (weight < distTo[w]) {
+                    distTo[w] = weight;
+                    edgeFrom[w] = v;
+                }
+                if (distTo[w] < best) {
+                    best = distTo[w];
+                    next = w;
+                }
+            }
+            res.operationsCount += V;
+            if (next == -1) {
+                // the rest is unreachable: restart the next tree at the first unmarked vertex
+                while (seed < V && marked[seed]) seed++;
+                if (seed < V) {
+                    next = seed;
+                    res.componentCount++;
+                }
+            }
+            v = next;
+        }
+
+        res.executionTimeMs = (System.nanoTime() - start) / 1_000_000.0;
         return res;
     }
 }
@@ -0,0 +1,129 @@
+package aitu.edu.mst.core;
+
+import java.util.Arrays;
+
+/**
+ *  The {@code AdjMatrixEdgeWeightedGraph} class represents an edge-weighted
+ *  undirected graph as a <em>V</em>-by-<em>V</em> adjacency matrix stored
+ *  row-major in a single flat {@code double[]}. A missing edge has weight
+ *  {@code +Infinity}.
+ *  <p>
+ *  It accepts the same {@link #addEdge(Edge)} calls as {@link EdgeWeightedGraph}
+ *  and can be copied from one. Since a matrix has room for one edge per pair of
+ *  vertices, parallel edges collapse to the lightest one and self-loops are
+ *  dropped; neither changes a minimum spanning tree.
+ *  <p>
+ *  The matrix takes &Theta;(<em>V</em><sup>2</sup>) space, so this
+ *  representation only pays off for dense graphs, where it lets
+ *  {@code PrimMST} scan a whole row with a tight loop and no priority queue.
+ */
+public class AdjMatrixEdgeWeightedGraph {
+    private final int V;
+    private int E;
+    private final double[] adj;     // adj[v*V + w] = weight of v-w, or +Infinity
+
+    /**
+     * Initializes an empty edge-weighted graph with {@code V} vertices and 0 edges.
+     *
+     * @param  V the number of vertices
+     * @throws IllegalArgumentException if {@code V < 0}
+     * @throws IllegalArgumentException if the matrix would have more than
+     *         {@code Integer.MAX_VALUE} entries
+     */
+    public AdjMatrixEdgeWeightedGraph(int V) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+        if ((long) V * V > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many vertices for an adjacency matrix: " + V);
+        this.V = V;
+        this.E = 0;
+        this.adj = new double[V * V];
+        Arrays.fill(adj, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Initializes an adjacency-matrix copy of the edge-weighted graph {@code G}.
+     *
+     * @param  G the edge-weighted graph to copy
+     * @throws IllegalArgumentException if {@code G} has too many vertices for a matrix
+     */
+    public AdjMatrixEdgeWeightedGraph(EdgeWeightedGraph G) {
+        this(G.V());
+        G.forEachEdge((v, w, weight) -> addEdge(v, w, weight));
+    }
+
+    /**
+     * Returns the number of vertices in this edge-weighted graph.
+     *
+     * @return the number of vertices in this edge-weighted graph
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * Returns the number of distinct edges (vertex pairs) in this edge-weighted graph.
+     *
+     * @return the number of edges in this edge-weighted graph
+     */
+    public int E() {
+        return E;
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Adds the undirected edge {@code e} to this edge-weighted graph. If the two
+     * endpoints are already joined, only the lighter weight is kept; self-loops
+     * are ignored.
+     *
+     * @param  e the edge
+     * @throws IllegalArgumentException unless both endpoints are between {@code 0} and {@code V-1}
+     */
+    public void addEdge(Edge e) {
+        int v = e.either();
+        int w = e.other(v);
+        validateVertex(v);
+        validateVertex(w);
+        addEdge(v, w, e.weight());
+    }
+
+    private void addEdge(int v, int w, double weight) {
+        if (v == w) return;
+        if (weight < adj[v * V + w]) {
+            if (adj[v * V + w] == Double.POSITIVE_INFINITY) E++;
+            adj[v * V + w] = weight;
+            adj[w * V + v] = weight;
+        }
+    }
+
+    /**
+     * Returns the weight of edge {@code v-w}.
+     *
+     * @param  v one vertex
+     * @param  w the other vertex
+     * @return the weight of edge {@code v-w}, or {@code Double.POSITIVE_INFINITY}
+     *         if there is no such edge
+     * @throws IllegalArgumentException unless both endpoints are between {@code 0} and {@code V-1}
+     */
+    public double weight(int v, int w) {
+        validateVertex(v);
+        validateVertex(w);
+        return adj[v * V + w];
+    }
+
+    /**
+     * Returns the backing row-major matrix: the weight of {@code v-w} is at
+     * index {@code v*V + w}. The array is shared, not copied, so that
+     * row scans stay a plain loop over a {@code double[]}; callers must not
+     * modify it.
+     *
+     * @return the flat adjacency matrix
+     */
+    public double[] matrix() {
+        return adj;
+    }
+}
@@ -0,0 +1,257 @@
+package aitu.edu.mst.core;
+
+import java.util.Arrays;
+
+/**
+ *  The {@code CSRGraph} class represents an immutable edge-weighted
+ *  undirected graph stored in <em>compressed sparse row</em> form.
+ *  The adjacency of vertex {@code v} occupies the slots
+ *  {@code begin(v)} (inclusive) to {@code end(v)} (exclusive); each slot holds
+ *  the other endpoint and the weight of one incident edge.
+ *  <p>
+ *  Unlike {@link EdgeWeightedGraph}, no per-edge objects are kept: the whole
+ *  graph lives in three primitive arrays ({@code offsets}, {@code targets}
+ *  and {@code weights}), so scanning an adjacency list is a sequential walk
+ *  over contiguous memory. As in {@link EdgeWeightedGraph}, every undirected
+ *  edge occupies two slots and a self-loop appears twice in the adjacency
+ *  of its vertex.
+ *  <p>
+ *  A {@code CSRGraph} is built either from an existing
+ *  {@link EdgeWeightedGraph} (preserving its adjacency order), from an
+ *  {@link EdgeList}, or through a {@link Builder}, which accepts the same
+ *  {@code addEdge} calls and yields the same adjacency order as the
+ *  equivalent {@link EdgeWeightedGraph}.
+ *  It is the on-heap {@link CompactGraph}.
+ */
+public final class CSRGraph implements CompactGraph {
+    private final int V;
+    private final int E;
+    private final int[] offsets;    // adjacency of v is in slots offsets[v] .. offsets[v+1]-1
+    private final int[] targets;    // targets[i] = other endpoint of slot i
+    private final double[] weights; // weights[i] = weight of slot i
+
+    /**
+     * Initializes a compressed copy of the edge-weighted graph {@code G}.
+     * The adjacency order of every vertex is the same as in {@code G.adj(v)}.
+     *
+     * @param  G the edge-weighted graph to copy
+     */
+    public CSRGraph(EdgeWeightedGraph G) {
+        this.V = G.V();
+        this.E = G.E();
+        this.offsets = new int[V + 1];
+        for (int v = 0; v < V; v++)
+            offsets[v + 1] = offsets[v] + G.degree(v);
+        this.targets = new int[offsets[V]];
+        this.weights = new double[offsets[V]];
+        for (int v = 0; v < V; v++) {
+            for (int i = 0, d = G.degree(v); i < d; i++) {
+                Edge e = G.adjEdge(v, i);
+                targets[offsets[v] + i] = e.other(v);
+                weights[offsets[v] + i] = e.weight();
+            }
+        }
+    }
+
+    /**
+     * Initializes a compressed graph with the edges of {@code edges}. As with
+     * the equivalent sequence of {@code EdgeWeightedGraph.addEdge} calls, the
+     * adjacency of every vertex lists its edges newest first.
+     *
+     * @param  edges the edges
+     */
+    public CSRGraph(EdgeList edges) {
+        this.V = edges.V();
+        this.E = edges.E();
+        this.offsets = new int[V + 1];
+        for (int i = 0; i < E; i++) {
+            offsets[edges.from(i) + 1]++;
+            offsets[edges.to(i) + 1]++;
+        }
+        for (int v = 0; v < V; v++)
+            offsets[v + 1] += offsets[v];
+
+        int[] next = Arrays.copyOf(offsets, V);
+        this.targets = new int[offsets[V]];
+        this.weights = new double[offsets[V]];
+        // fill newest first so adjacency order matches EdgeWeightedGraph (whose Bag is LIFO)
+        for (int i = E - 1; i >= 0; i--) {
+            int v = edges.from(i);
+            int w = edges.to(i);
+            double weight = edges.weight(i);
+            int s = next[v]++;
+            targets[s] = w;
+            weights[s] = weight;
+            s = next[w]++;
+            targets[s] = v;
+            weights[s] = weight;
+        }
+    }
+
+    /**
+     * Returns the number of vertices in this graph.
+     *
+     * @return the number of vertices in this graph
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * Returns the number of edges in this graph.
+     *
+     * @return the number of edges in this graph
+     */
+    public int E() {
+        return E;
+    }
+
+    /**
+     * Returns the first adjacency slot of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the first slot of the adjacency of {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int begin(int v) {
+        validateVertex(v);
+        return offsets[v];
+    }
+
+    /**
+     * Returns one past the last adjacency slot of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the slot just after the adjacency of {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int end(int v) {
+        validateVertex(v);
+        return offsets[v + 1];
+    }
+
+    /**
+     * Returns the endpoint stored in adjacency slot {@code i}.
+     *
+     * @param  i the slot
+     * @return the other endpoint of the edge in slot {@code i}
+     */
+    public int target(int i) {
+        return targets[i];
+    }
+
+    /**
+     * Returns the weight stored in adjacency slot {@code i}.
+     *
+     * @param  i the slot
+     * @return the weight of the edge in slot {@code i}
+     */
+    public double weight(int i) {
+        return weights[i];
+    }
+
+    /**
+     * Returns the degree of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the degree of vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int degree(int v) {
+        validateVertex(v);
+        return offsets[v + 1] - offsets[v];
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Accumulates edges in an {@link EdgeList} and compresses them into a
+     * {@link CSRGraph}. No {@link Edge} objects are created.
+     */
+    public static final class Builder {
+        private final EdgeList edges;
+
+        /**
+         * Initializes a builder for a graph with {@code V} vertices.
+         *
+         * @param  V the number of vertices
+         * @throws IllegalArgumentException if {@code V < 0}
+         */
+        public Builder(int V) {
+            this(V, 16);
+        }
+
+        /**
+         * Initializes a builder for a graph with {@code V} vertices and room
+         * for {@code expectedEdges} edges before the first resize.
+         *
+         * @param  V the number of vertices
+         * @param  expectedEdges the expected number of edges
+         * @throws IllegalArgumentException if {@code V < 0} or {@code expectedEdges < 0}
+         */
+        public Builder(int V, int expectedEdges) {
+            this.edges = new EdgeList(V, expectedEdges, false);
+        }
+
+        /**
+         * Adds the undirected edge {@code v-w} with the given weight.
+         *
+         * @param  v one vertex
+         * @param  w the other vertex
+         * @param  weight the weight of the edge
+         * @return this builder
+         * @throws IllegalArgumentException unless both endpoints are between {@code 0} and {@code V-1}
+         * @throws IllegalArgumentException if {@code weight} is {@code NaN}
+         */
+        public Builder addEdge(int v, int w, double weight) {
+            edges.add(v, w, weight);
+            return this;
+        }
+
+        /**
+         * Adds the undirected edge {@code e}.
+         *
+         * @param  e the edge
+         * @return this builder
+         * @throws IllegalArgumentException unless both endpoints are between {@code 0} and {@code V-1}
+         */
+        public Builder addEdge(Edge e) {
+            int v = e.either();
+            return addEdge(v, e.other(v), e.weight());
+        }
+
+        /**
+         * Adds the {@code n} undirected edges {@code from[i]-to[i]} with
+         * weight {@code weight[i]}, for {@code 0 <= i < n}, in that order.
+         * Equivalent to {@code n} calls of {@link #addEdge(int, int, double)},
+         * but copies the arrays in bulk.
+         *
+         * @param  from one endpoint of each edge
+         * @param  to the other endpoint of each edge
+         * @param  weight the weight of each edge
+         * @param  n the number of edges to add
+         * @return this builder
+         * @throws IllegalArgumentException if {@code n} is negative or exceeds an array length
+         * @throws IllegalArgumentException unless every endpoint is between {@code 0} and {@code V-1}
+         * @throws IllegalArgumentException if a weight is {@code NaN}
+         */
+        public Builder addEdges(int[] from, int[] to, double[] weight, int n) {
+            edges.addAll(from, to, weight, n);
+            return this;
+        }
+
+        /**
+         * Compresses the edges added so far into a new {@link CSRGraph}.
+         * The builder may be reused afterwards.
+         *
+         * @return the compressed graph
+         */
+        public CSRGraph build() {
+            return new CSRGraph(edges);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package aitu.edu.mst.core;
+
+/**
+ *  The {@code CompactGraph} interface is a read-only edge-weighted undirected
+ *  graph in <em>compressed sparse row</em> form: the adjacency of vertex
+ *  {@code v} occupies the slots {@code begin(v)} (inclusive) to
+ *  {@code end(v)} (exclusive), and each slot holds the other endpoint and the
+ *  weight of one incident edge. Every undirected edge occupies two slots and
+ *  a self-loop appears twice in the adjacency of its vertex.
+ *  <p>
+ *  The interface only fixes how the slots are addressed, not where they are
+ *  stored, so the same algorithm code runs over a {@link CSRGraph} on the
+ *  Java heap and over a graph file mapped into memory.
+ */
+public interface CompactGraph {
+
+    /**
+     * Returns the number of vertices in this graph.
+     *
+     * @return the number of vertices in this graph
+     */
+    int V();
+
+    /**
+     * Returns the number of edges in this graph.
+     *
+     * @return the number of edges in this graph
+     */
+    int E();
+
+    /**
+     * Returns the first adjacency slot of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the first slot of the adjacency of {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    int begin(int v);
+
+    /**
+     * Returns one past the last adjacency slot of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the slot just after the adjacency of {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    int end(int v);
+
+    /**
+     * Returns the endpoint stored in adjacency slot {@code i}.
+     *
+     * @param  i the slot
+     * @return the other endpoint of the edge in slot {@code i}
+     */
+    int target(int i);
+
+    /**
+     * Returns the weight stored in adjacency slot {@code i}.
+     *
+     * @param  i the slot
+     * @return the weight of the edge in slot {@code i}
+     */
+    double weight(int i);
+
+    /**
+     * Returns the degree of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the degree of vertex {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    default int degree(int v) {
+        return end(v) - begin(v);
+    }
+
+    /**
+     * Performs the given action on every edge of this graph, visiting each
+     * undirected edge once as {@code action.accept(v, w, weight)} with
+     * {@code v <= w}, in vertex order.
+     *
+     * @param  action the action to perform on each edge
+     */
+    default void forEachEdge(IntIntDoubleConsumer action) {
+        for (int v = 0; v < V(); v++) {
+            int selfLoops = 0;
+            for (int i = begin(v), end = end(v); i < end; i++) {
+                int w = target(i);
+                if (w > v) {
+                    action.accept(v, w, weight(i));
+                }
+                // a self-loop fills two consecutive slots; visit it once
+                else if (w == v) {
+                    if (selfLoops % 2 == 0) action.accept(v, v, weight(i));
+                    selfLoops++;
+                }
+            }
+        }
+    }
+}
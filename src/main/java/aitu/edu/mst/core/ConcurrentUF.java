@@ -0,0 +1,157 @@
+package aitu.edu.mst.core;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ *  The {@code ConcurrentUF} class is a lock-free <em>union–find data type</em>
+ *  that many threads can share. It has the same operations as {@link UF}:
+ *  <em>find</em>, <em>union</em> and <em>count</em>.
+ *  <p>
+ *  The parent links live in an {@link AtomicIntegerArray}.
+ *  <ul>
+ *  <li><em>union</em> links one root below the other with a single
+ *      compare-and-set, which only succeeds while the linked element is still
+ *      a root; a failed CAS means another thread changed the forest and the
+ *      operation retries from fresh roots.
+ *  <li>Roots are linked by <em>randomized priority</em>: each element gets a
+ *      fixed random rank (a random permutation of {@code 0 .. n-1}) and the
+ *      root with the lower rank goes below the other, which keeps the expected
+ *      tree depth logarithmic without any per-root bookkeeping.
+ *  <li><em>find</em> is wait-free and uses <em>path splitting</em>: every
+ *      visited element is pointed at its grandparent with one CAS attempt,
+ *      and a failed attempt is simply skipped.
+ *  </ul>
+ *  Unlike {@link UF}, {@link #union(int, int)} reports whether it merged two
+ *  sets, so exactly one thread wins when several try to join the same sets.
+ */
+public class ConcurrentUF {
+    private final AtomicIntegerArray parent;  // parent[i] = parent of i
+    private final int[] priority;             // priority[i] = random link rank of i
+    private final AtomicInteger count;        // number of components
+
+    /**
+     * Initializes an empty union-find data structure with
+     * {@code n} elements {@code 0} through {@code n-1}.
+     * Initially, each element is in its own set.
+     *
+     * @param  n the number of elements
+     * @throws IllegalArgumentException if {@code n < 0}
+     */
+    public ConcurrentUF(int n) {
+        this(n, new Random());
+    }
+
+    /**
+     * Initializes an empty union-find data structure with
+     * {@code n} elements, drawing the link priorities from {@code random}.
+     *
+     * @param  n the number of elements
+     * @param  random the source of the link priorities
+     * @throws IllegalArgumentException if {@code n < 0}
+     */
+    public ConcurrentUF(int n, Random random) {
+        if (n < 0) throw new IllegalArgumentException();
+        parent = new AtomicIntegerArray(n);
+        priority = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent.set(i, i);
+            priority[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = priority[i];
+            priority[i] = priority[j];
+            priority[j] = t;
+        }
+        count = new AtomicInteger(n);
+    }
+
+    /**
+     * Returns the canonical element of the set containing element {@code p}.
+     * Under concurrent unions the answer is the root at some instant during
+     * the call.
+     *
+     * @param  p an element
+     * @return the canonical element of the set containing {@code p}
+     * @throws IllegalArgumentException unless {@code 0 <= p < n}
+     */
+    public int find(int p) {
+        validate(p);
+        while (true) {
+            int q = parent.get(p);
+            if (q == p) return p;
+            int r = parent.get(q);
+            if (q != r) parent.compareAndSet(p, q, r);  // path splitting
+            p = q;
+        }
+    }
+
+    /**
+     * Returns true if the two elements are in the same set.
+     *
+     * @param  p one element
+     * @param  q the other element
+     * @return {@code true} if {@code p} and {@code q} are in the same set;
+     *         {@code false} otherwise
+     * @throws IllegalArgumentException unless
+     *         both {@code 0 <= p < n} and {@code 0 <= q < n}
+     */
+    public boolean connected(int p, int q) {
+        while (true) {
+            p = find(p);
+            q = find(q);
+            if (p == q) return true;
+            // p and q were both roots at once only if p is still a root now
+            if (parent.get(p) == p) return false;
+        }
+    }
+
+    /**
+     * Merges the set containing element {@code p} with the set
+     * containing element {@code q}.
+     *
+     * @param  p one element
+     * @param  q the other element
+     * @return {@code true} if this call merged two different sets;
+     *         {@code false} if they were already the same set
+     * @throws IllegalArgumentException unless
+     *         both {@code 0 <= p < n} and {@code 0 <= q < n}
+     */
+    public boolean union(int p, int q) {
+        while (true) {
+            int rootP = find(p);
+            int rootQ = find(q);
+            if (rootP == rootQ) return false;
+
+            // make root of lower priority point to root of higher priority
+            if (priority[rootP] > priority[rootQ]) {
+                int t = rootP;
+                rootP = rootQ;
+                rootQ = t;
+            }
+            if (parent.compareAndSet(rootP, rootP, rootQ)) {
+                count.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of sets.
+     *
+     * @return the number of sets (between {@code 1} and {@code n})
+     */
+    public int count() {
+        return count.get();
+    }
+
+    // validate that p is a valid index
+    private void validate(int p) {
+        int n = parent.length();
+        if (p < 0 || p >= n) {
+            throw new IllegalArgumentException("index " + p + " is not between 0 and " + (n-1));
+        }
+    }
+}
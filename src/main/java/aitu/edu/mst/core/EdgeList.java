@@ -0,0 +1,271 @@
+package aitu.edu.mst.core;
+
+import aitu.edu.mst.utility.WeightSort;
+
+import java.util.Arrays;
+
+/**
+ *  The {@code EdgeList} class is a growable list of undirected weighted edges
+ *  stored as a <em>struct of arrays</em>: edge {@code i} is
+ *  {@code from(i)}-{@code to(i)} with weight {@code weight(i)}, held in two
+ *  {@code int[]} columns and one weight column. No {@link Edge} object exists
+ *  per edge; {@link #edge(int)} materializes one on demand.
+ *  <p>
+ *  The weight column is a {@code double[]} by default. A list created with
+ *  {@code floatWeights} set keeps a {@code float[]} instead and rounds every
+ *  weight to {@code float} when it is added, bringing an edge down from the
+ *  roughly 32 bytes of an {@link Edge} plus its reference to 12 bytes.
+ *  <p>
+ *  Edges keep the order in which they were added. {@link #of(EdgeWeightedGraph)}
+ *  adds them in {@link EdgeWeightedGraph#edges()} order, so index-based tie
+ *  breaking over an {@code EdgeList} agrees with sorting {@code G.edges()}.
+ */
+public final class EdgeList {
+    private final int V;
+    private int E;
+    private int[] from;
+    private int[] to;
+    private double[] weight;        // null when the weights are floats
+    private float[] floatWeight;    // null when the weights are doubles
+
+    /**
+     * Initializes an empty edge list over {@code V} vertices with
+     * {@code double} weights.
+     *
+     * @param  V the number of vertices
+     * @throws IllegalArgumentException if {@code V < 0}
+     */
+    public EdgeList(int V) {
+        this(V, 16, false);
+    }
+
+    /**
+     * Initializes an empty edge list over {@code V} vertices with room for
+     * {@code capacity} edges before the first resize.
+     *
+     * @param  V the number of vertices
+     * @param  capacity the expected number of edges
+     * @param  floatWeights whether to store the weights as {@code float}
+     * @throws IllegalArgumentException if {@code V < 0} or {@code capacity < 0}
+     */
+    public EdgeList(int V, int capacity, boolean floatWeights) {
+        if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+        if (capacity < 0) throw new IllegalArgumentException("Number of edges must be non-negative");
+        this.V = V;
+        capacity = Math.max(capacity, 1);
+        from = new int[capacity];
+        to = new int[capacity];
+        if (floatWeights) floatWeight = new float[capacity];
+        else              weight = new double[capacity];
+    }
+
+    /**
+     * Returns the edges of {@code G} in the order of {@code G.edges()}, each
+     * as {@code v-w} with {@code v <= w}.
+     *
+     * @param  G the edge-weighted graph
+     * @return the edges of {@code G}
+     */
+    public static EdgeList of(EdgeWeightedGraph G) {
+        EdgeList edges = new EdgeList(G.V(), G.E(), false);
+        G.forEachEdge((v, w, weight) -> edges.add(v, w, weight));
+        return edges;
+    }
+
+    /**
+     * Returns the edges of {@code G} in vertex order, each once as
+     * {@code v-w} with {@code v <= w}.
+     *
+     * @param  G the compact graph
+     * @return the edges of {@code G}
+     */
+    public static EdgeList of(CompactGraph G) {
+        EdgeList edges = new EdgeList(G.V(), G.E(), false);
+        G.forEachEdge((v, w, weight) -> edges.add(v, w, weight));
+        return edges;
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * Returns the number of edges.
+     *
+     * @return the number of edges
+     */
+    public int E() {
+        return E;
+    }
+
+    /**
+     * Returns true if the weights are stored as {@code float}.
+     *
+     * @return {@code true} if the weights are stored as {@code float}
+     */
+    public boolean hasFloatWeights() {
+        return floatWeight != null;
+    }
+
+    /**
+     * Adds the undirected edge {@code v-w} with the given weight.
+     *
+     * @param  v one vertex
+     * @param  w the other vertex
+     * @param  weight the weight of the edge
+     * @throws IllegalArgumentException unless both endpoints are between {@code 0} and {@code V-1}
+     * @throws IllegalArgumentException if {@code weight} is {@code NaN}
+     */
+    public void add(int v, int w, double weight) {
+        validateVertex(v);
+        validateVertex(w);
+        if (Double.isNaN(weight)) throw new IllegalArgumentException("Weight is NaN");
+        if (E == from.length) resize(2 * E);
+        from[E] = v;
+        to[E] = w;
+        if (floatWeight != null) floatWeight[E] = (float) weight;
+        else                     this.weight[E] = weight;
+        E++;
+    }
+
+    /**
+     * Adds the {@code n} undirected edges {@code from[i]-to[i]} with weight
+     * {@code weight[i]}, for {@code 0 <= i < n}, in that order.
+     *
+     * @param  from one endpoint of each edge
+     * @param  to the other endpoint of each edge
+     * @param  weight the weight of each edge
+     * @param  n the number of edges to add
+     * @throws IllegalArgumentException if {@code n} is negative or exceeds an array length
+     * @throws IllegalArgumentException unless every endpoint is between {@code 0} and {@code V-1}
+     * @throws IllegalArgumentException if a weight is {@code NaN}
+     */
+    public void addAll(int[] from, int[] to, double[] weight, int n) {
+        if (n < 0 || n > from.length || n > to.length || n > weight.length)
+            throw new IllegalArgumentException("invalid number of edges: " + n);
+        for (int i = 0; i < n; i++) {
+            validateVertex(from[i]);
+            validateVertex(to[i]);
+            if (Double.isNaN(weight[i])) throw new IllegalArgumentException("Weight is NaN");
+        }
+        if (E + n > this.from.length) resize(Math.max(2 * this.from.length, E + n));
+        System.arraycopy(from, 0, this.from, E, n);
+        System.arraycopy(to, 0, this.to, E, n);
+        if (floatWeight != null) {
+            for (int i = 0; i < n; i++) floatWeight[E + i] = (float) weight[i];
+        }
+        else System.arraycopy(weight, 0, this.weight, E, n);
+        E += n;
+    }
+
+    /**
+     * Removes every edge, keeping the allocated capacity.
+     */
+    public void clear() {
+        E = 0;
+    }
+
+    /**
+     * Returns one endpoint of edge {@code i}.
+     *
+     * @param  i the edge index
+     * @return the first endpoint of edge {@code i}
+     */
+    public int from(int i) {
+        return from[i];
+    }
+
+    /**
+     * Returns the other endpoint of edge {@code i}.
+     *
+     * @param  i the edge index
+     * @return the second endpoint of edge {@code i}
+     */
+    public int to(int i) {
+        return to[i];
+    }
+
+    /**
+     * Returns the weight of edge {@code i}.
+     *
+     * @param  i the edge index
+     * @return the weight of edge {@code i}
+     */
+    public double weight(int i) {
+        return floatWeight != null ? floatWeight[i] : weight[i];
+    }
+
+    /**
+     * Returns edge {@code i} as a new {@link Edge}.
+     *
+     * @param  i the edge index
+     * @return a new {@code Edge} equal to edge {@code i}
+     */
+    public Edge edge(int i) {
+        return new Edge(from[i], to[i], weight(i));
+    }
+
+    /**
+     * Returns the edge indices sorted by ascending weight. The order is
+     * stable, so edges of equal weight keep the order in which they were added.
+     *
+     * @return a stable ascending-weight permutation of {@code 0 .. E-1}
+     */
+    public int[] sortedOrder() {
+        return floatWeight != null ? WeightSort.order(floatWeight, E) : WeightSort.order(weight, E);
+    }
+
+    /**
+     * Returns the same permutation as {@link #sortedOrder()}, computed with
+     * {@link WeightSort#parallelOrder(double[], int)}. Float weights are
+     * sorted as in {@link #sortedOrder()}, which already uses all cores.
+     *
+     * @return a stable ascending-weight permutation of {@code 0 .. E-1}
+     */
+    public int[] parallelSortedOrder() {
+        return floatWeight != null ? WeightSort.order(floatWeight, E) : WeightSort.parallelOrder(weight, E);
+    }
+
+    /**
+     * Returns the same permutation as {@link #sortedOrder()}, computed with
+     * {@link WeightSort#radixOrder(double[], int)}. Float weights are
+     * sorted as in {@link #sortedOrder()}.
+     *
+     * @return a stable ascending-weight permutation of {@code 0 .. E-1}
+     */
+    public int[] radixSortedOrder() {
+        return floatWeight != null ? WeightSort.order(floatWeight, E) : WeightSort.radixOrder(weight, E);
+    }
+
+    /**
+     * Sorts the edge indices {@code index[lo]} through {@code index[hi-1]}
+     * by ascending weight. The sort is stable.
+     *
+     * @param  index edge indices
+     * @param  lo the first position to sort
+     * @param  hi one past the last position to sort
+     * @throws IllegalArgumentException unless {@code 0 <= lo <= hi <= index.length}
+     */
+    public void sort(int[] index, int lo, int hi) {
+        if (floatWeight != null) WeightSort.sort(index, lo, hi, floatWeight);
+        else                     WeightSort.sort(index, lo, hi, weight);
+    }
+
+    private void resize(int capacity) {
+        from = Arrays.copyOf(from, capacity);
+        to = Arrays.copyOf(to, capacity);
+        if (floatWeight != null) floatWeight = Arrays.copyOf(floatWeight, capacity);
+        else                     weight = Arrays.copyOf(weight, capacity);
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+}
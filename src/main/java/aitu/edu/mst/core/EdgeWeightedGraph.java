@@ -1,7 +1,7 @@
 package aitu.edu.mst.core; /******************************************************************************
  *  Compilation:  javac EdgeWeightedGraph.java
  *  Execution:    java EdgeWeightedGraph filename.txt
- *  Dependencies: Bag.java Edge.java In.java StdOut.java
+ *  Dependencies: Edge.java In.java StdOut.java
  *  Data files:   https://algs4.cs.princeton.edu/43mst/tinyEWG.txt
  *                https://algs4.cs.princeton.edu/43mst/mediumEWG.txt
  *                https://algs4.cs.princeton.edu/43mst/largeEWG.txt
@@ -23,11 +23,15 @@ package aitu.edu.mst.core; /****************************************************
  ******************************************************************************/
 
 import aitu.edu.mst.io.In;
-import aitu.edu.mst.utility.Stack;
 import aitu.edu.mst.io.StdOut;
 import aitu.edu.mst.io.StdRandom;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 /**
  *  The {@code EdgeWeightedGraph} class represents an edge-weighted
@@ -43,7 +47,11 @@ import java.util.NoSuchElementException;
  *  of <em>v</em>.
  *  <p>
  *  This implementation uses an <em>adjacency-lists representation</em>, which
- *  is a vertex-indexed array of {@link Bag} objects.
+ *  is a vertex-indexed array of resizing arrays of edges. Besides the
+ *  {@link #adj(int)} and {@link #edges()} iterables, it offers an
+ *  allocation-free index cursor {@link #adjEdge(int, int)} and an edge
+ *  visitor {@link #forEachEdge(IntIntDoubleConsumer)}, so that algorithms can
+ *  walk the graph without creating iterators or collections.
  *  It uses &Theta;(<em>E</em> + <em>V</em>) space, where <em>E</em> is
  *  the number of edges and <em>V</em> is the number of vertices.
  *  All instance methods take &Theta;(1) time. (Though, iterating over
@@ -63,10 +71,12 @@ import java.util.NoSuchElementException;
  */
 public class EdgeWeightedGraph {
     private static final String NEWLINE = System.getProperty("line.separator");
+    private static final Edge[] EMPTY = new Edge[0];
 
     private final int V;
     private int E;
-    private Bag<Edge>[] adj;
+    private Edge[][] adj;           // adj[v][0 .. deg[v]-1] = edges incident on v, oldest first
+    private int[] deg;              // deg[v] = degree of v
 
     /**
      * Initializes an empty edge-weighted graph with {@code V} vertices and 0 edges.
@@ -78,10 +88,9 @@ public class EdgeWeightedGraph {
         if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
         this.V = V;
         this.E = 0;
-        adj = (Bag<Edge>[]) new Bag[V];
-        for (int v = 0; v < V; v++) {
-            adj[v] = new Bag<Edge>();
-        }
+        adj = new Edge[V][];
+        deg = new int[V];
+        Arrays.fill(adj, EMPTY);
     }
 
     /**
@@ -121,10 +130,10 @@ public class EdgeWeightedGraph {
 
         try {
             V = in.readInt();
-            adj = (Bag<Edge>[]) new Bag[V];
-            for (int v = 0; v < V; v++) {
-                adj[v] = new Bag<Edge>();
-            }
+            if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+            adj = new Edge[V][];
+            deg = new int[V];
+            Arrays.fill(adj, EMPTY);
 
             int E = in.readInt();
             if (E < 0) throw new IllegalArgumentException("Number of edges must be non-negative");
@@ -153,14 +162,8 @@ public class EdgeWeightedGraph {
         this(G.V());
         this.E = G.E();
         for (int v = 0; v < G.V(); v++) {
-            // reverse so that adjacency list is in same order as original
-            Stack<Edge> reverse = new Stack<Edge>();
-            for (Edge e : G.adj[v]) {
-                reverse.push(e);
-            }
-            for (Edge e : reverse) {
-                adj[v].add(e);
-            }
+            adj[v] = Arrays.copyOf(G.adj[v], G.deg[v]);
+            deg[v] = G.deg[v];
         }
     }
 
@@ -200,11 +203,18 @@ public class EdgeWeightedGraph {
         int w = e.other(v);
         validateVertex(v);
         validateVertex(w);
-        adj[v].add(e);
-        adj[w].add(e);
+        add(v, e);
+        add(w, e);
         E++;
     }
 
+    // append e to the adjacency array of v, doubling it when full
+    private void add(int v, Edge e) {
+        if (deg[v] == adj[v].length)
+            adj[v] = Arrays.copyOf(adj[v], Math.max(4, 2 * deg[v]));
+        adj[v][deg[v]++] = e;
+    }
+
     /**
      * Returns the edges incident on vertex {@code v}.
      *
@@ -214,7 +224,27 @@ public class EdgeWeightedGraph {
      */
     public Iterable<Edge> adj(int v) {
         validateVertex(v);
-        return adj[v];
+        return () -> new AdjIterator(v);
+    }
+
+    /**
+     * Returns the edge at position {@code i} of the adjacency list of vertex
+     * {@code v}, in the same order as {@link #adj(int)}: the edges
+     * {@code adjEdge(v, 0)} through {@code adjEdge(v, degree(v) - 1)} are
+     * exactly the edges of {@code adj(v)}. Unlike {@code adj(v)}, walking the
+     * list this way allocates nothing.
+     *
+     * @param  v the vertex
+     * @param  i the position in the adjacency list of {@code v}
+     * @return the edge at position {@code i} of the adjacency list of {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     * @throws IndexOutOfBoundsException unless {@code 0 <= i < degree(v)}
+     */
+    public Edge adjEdge(int v, int i) {
+        validateVertex(v);
+        if (i < 0 || i >= deg[v])
+            throw new IndexOutOfBoundsException("index " + i + " is not between 0 and " + (deg[v]-1));
+        return adj[v][deg[v] - 1 - i];
     }
 
     /**
@@ -226,7 +256,7 @@ public class EdgeWeightedGraph {
      */
     public int degree(int v) {
         validateVertex(v);
-        return adj[v].size();
+        return deg[v];
     }
 
     /**
@@ -237,21 +267,60 @@ public class EdgeWeightedGraph {
      * @return all edges in this edge-weighted graph, as an iterable
      */
     public Iterable<Edge> edges() {
-        Bag<Edge> list = new Bag<Edge>();
-        for (int v = 0; v < V; v++) {
+        List<Edge> list = new ArrayList<Edge>(E);
+        forEachEdge(list::add);
+        return list;
+    }
+
+    /**
+     * Performs the given action on every edge of this edge-weighted graph,
+     * in the same order as {@link #edges()}. Each edge is visited once, as
+     * {@code action.accept(v, w, weight)} with {@code v <= w}; no objects are
+     * allocated.
+     *
+     * @param  action the action to perform on each edge
+     */
+    public void forEachEdge(IntIntDoubleConsumer action) {
+        for (int v = V - 1; v >= 0; v--) {
+            Edge[] list = adj[v];
             int selfLoops = 0;
-            for (Edge e : adj(v)) {
-                if (e.other(v) > v) {
-                    list.add(e);
+            for (int i = 0; i < deg[v]; i++) {
+                Edge e = list[i];
+                int w = e.other(v);
+                if (w > v) {
+                    action.accept(v, w, e.weight());
                 }
-                // add only one copy of each self loop (self loops will be consecutive)
-                else if (e.other(v) == v) {
-                    if (selfLoops % 2 == 0) list.add(e);
+                // visit only one copy of each self loop (self loops will be consecutive)
+                else if (w == v) {
+                    if (selfLoops % 2 == 0) action.accept(v, v, e.weight());
+                    selfLoops++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Performs the given action on every edge of this edge-weighted graph,
+     * in the same order as {@link #edges()}, without building a collection.
+     *
+     * @param  action the action to perform on each edge
+     */
+    public void forEachEdge(Consumer<? super Edge> action) {
+        for (int v = V - 1; v >= 0; v--) {
+            Edge[] list = adj[v];
+            int selfLoops = 0;
+            for (int i = 0; i < deg[v]; i++) {
+                Edge e = list[i];
+                int w = e.other(v);
+                if (w > v) {
+                    action.accept(e);
+                }
+                else if (w == v) {
+                    if (selfLoops % 2 == 0) action.accept(e);
                     selfLoops++;
                 }
             }
         }
-        return list;
     }
 
     /**
@@ -266,7 +335,7 @@ public class EdgeWeightedGraph {
         s.append(V + " " + E + NEWLINE);
         for (int v = 0; v < V; v++) {
             s.append(v + ": ");
-            for (Edge e : adj[v]) {
+            for (Edge e : adj(v)) {
                 s.append(e + "  ");
             }
             s.append(NEWLINE);
@@ -310,6 +379,26 @@ public class EdgeWeightedGraph {
         return s.toString();
     }
 
+    // iterates over the adjacency array of one vertex, newest edge first
+    private class AdjIterator implements Iterator<Edge> {
+        private final Edge[] list;
+        private int i;
+
+        AdjIterator(int v) {
+            list = adj[v];
+            i = deg[v];
+        }
+
+        public boolean hasNext() {
+            return i > 0;
+        }
+
+        public Edge next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return list[--i];
+        }
+    }
+
     /**
      * Unit tests the {@code EdgeWeightedGraph} data type.
      *
@@ -0,0 +1,20 @@
+package aitu.edu.mst.core;
+
+/**
+ *  The {@code IntIntDoubleConsumer} interface is an operation that accepts
+ *  two {@code int} values and a {@code double} and returns no result.
+ *  Graphs use it to hand each edge to a visitor as its two endpoints and its
+ *  weight, without creating an {@link Edge} or an iterator per edge.
+ */
+@FunctionalInterface
+public interface IntIntDoubleConsumer {
+
+    /**
+     * Performs this operation on the given edge.
+     *
+     * @param  v one endpoint of the edge
+     * @param  w the other endpoint of the edge
+     * @param  weight the weight of the edge
+     */
+    void accept(int v, int w, double weight);
+}
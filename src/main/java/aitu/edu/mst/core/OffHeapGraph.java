@@ -0,0 +1,288 @@
+package aitu.edu.mst.core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ *  The {@code OffHeapGraph} class is a {@link CompactGraph} whose offsets,
+ *  targets and weights live in direct {@link ByteBuffer}s, outside the Java
+ *  heap. The garbage collector sees a handful of buffer objects however large
+ *  the graph is, so a graph with hundreds of millions of edges can be held
+ *  and solved with a small heap and without long collection pauses; only the
+ *  per-vertex arrays of the algorithms themselves stay on the heap.
+ *  <p>
+ *  A single buffer cannot exceed 2 GB, so every column is split into chunks
+ *  of 2<sup>27</sup> elements and slot {@code i} is found in chunk
+ *  {@code i >>> 27} at position {@code i & (2^27 - 1)}. The total size is
+ *  bounded by {@code -XX:MaxDirectMemorySize} instead of {@code -Xmx}.
+ *  <p>
+ *  An {@code OffHeapGraph} is immutable and safe to share between threads.
+ *  It is built with a {@link Builder}, whose edges are also kept off the heap
+ *  and which yields the same adjacency order as the equivalent
+ *  {@link EdgeWeightedGraph}, or copied from another {@link CompactGraph}
+ *  such as a mapped graph file. Its memory is released when it becomes
+ *  unreachable.
+ */
+public final class OffHeapGraph implements CompactGraph {
+    private static final int CHUNK_SHIFT = 27;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;     // elements per chunk
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final int V;
+    private final int E;
+    private final Column offsets;   // adjacency of v is in slots offsets[v] .. offsets[v+1]-1
+    private final Column targets;   // targets[i] = other endpoint of slot i
+    private final Column weights;   // weights[i] = weight of slot i
+
+    private OffHeapGraph(int V, int E, Column offsets, Column targets, Column weights) {
+        this.V = V;
+        this.E = E;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Returns an off-heap copy of {@code G} with the same slots in the same order.
+     *
+     * @param  G the graph to copy
+     * @return the off-heap copy
+     */
+    public static OffHeapGraph copyOf(CompactGraph G) {
+        int V = G.V();
+        int S = V == 0 ? 0 : G.end(V - 1);
+        Column offsets = new Column(Integer.BYTES, V + 1L);
+        Column targets = new Column(Integer.BYTES, S);
+        Column weights = new Column(Double.BYTES, S);
+        for (int v = 0; v < V; v++) offsets.putInt(v, G.begin(v));
+        offsets.putInt(V, S);
+        for (int i = 0; i < S; i++) {
+            targets.putInt(i, G.target(i));
+            weights.putDouble(i, G.weight(i));
+        }
+        return new OffHeapGraph(V, G.E(), offsets, targets, weights);
+    }
+
+    /**
+     * Returns the number of vertices in this graph.
+     *
+     * @return the number of vertices in this graph
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * Returns the number of edges in this graph.
+     *
+     * @return the number of edges in this graph
+     */
+    public int E() {
+        return E;
+    }
+
+    /**
+     * Returns the first adjacency slot of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the first slot of the adjacency of {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int begin(int v) {
+        validateVertex(v);
+        return offsets.getInt(v);
+    }
+
+    /**
+     * Returns one past the last adjacency slot of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the slot just after the adjacency of {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int end(int v) {
+        validateVertex(v);
+        return offsets.getInt(v + 1);
+    }
+
+    /**
+     * Returns the endpoint stored in adjacency slot {@code i}.
+     *
+     * @param  i the slot
+     * @return the other endpoint of the edge in slot {@code i}
+     */
+    public int target(int i) {
+        return targets.getInt(i);
+    }
+
+    /**
+     * Returns the weight stored in adjacency slot {@code i}.
+     *
+     * @param  i the slot
+     * @return the weight of the edge in slot {@code i}
+     */
+    public double weight(int i) {
+        return weights.getDouble(i);
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+
+    /**
+     * Accumulates edges in off-heap columns and compresses them into an
+     * {@link OffHeapGraph} with two counting passes. The only heap memory
+     * used is one {@code int} per vertex while building.
+     */
+    public static final class Builder {
+        private final int V;
+        private int E;
+        private Column from;
+        private Column to;
+        private Column weight;
+
+        /**
+         * Initializes a builder for a graph with {@code V} vertices.
+         *
+         * @param  V the number of vertices
+         * @throws IllegalArgumentException if {@code V < 0}
+         */
+        public Builder(int V) {
+            if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+            this.V = V;
+            from = new Column(Integer.BYTES, 16);
+            to = new Column(Integer.BYTES, 16);
+            weight = new Column(Double.BYTES, 16);
+        }
+
+        /**
+         * Adds the undirected edge {@code v-w} with the given weight.
+         *
+         * @param  v one vertex
+         * @param  w the other vertex
+         * @param  weight the weight of the edge
+         * @return this builder
+         * @throws IllegalArgumentException unless both endpoints are between {@code 0} and {@code V-1}
+         * @throws IllegalArgumentException if {@code weight} is {@code NaN}
+         * @throws IllegalStateException if the graph would exceed {@code Integer.MAX_VALUE} adjacency slots
+         */
+        public Builder addEdge(int v, int w, double weight) {
+            validateVertex(v);
+            validateVertex(w);
+            if (Double.isNaN(weight)) throw new IllegalArgumentException("Weight is NaN");
+            if (E == Integer.MAX_VALUE / 2) throw new IllegalStateException("too many edges for int slot indices");
+            if (E == from.capacity()) {
+                long capacity = Math.min(2L * E, Integer.MAX_VALUE / 2);
+                from = from.grow(capacity);
+                to = to.grow(capacity);
+                this.weight = this.weight.grow(capacity);
+            }
+            from.putInt(E, v);
+            to.putInt(E, w);
+            this.weight.putDouble(E, weight);
+            E++;
+            return this;
+        }
+
+        /**
+         * Compresses the edges added so far into a new {@link OffHeapGraph}.
+         * The builder may be reused afterwards.
+         *
+         * @return the off-heap graph
+         */
+        public OffHeapGraph build() {
+            int[] next = new int[V + 1];
+            for (int i = 0; i < E; i++) {
+                next[from.getInt(i) + 1]++;
+                next[to.getInt(i) + 1]++;
+            }
+            for (int v = 0; v < V; v++)
+                next[v + 1] += next[v];
+
+            Column offsets = new Column(Integer.BYTES, V + 1L);
+            for (int v = 0; v <= V; v++) offsets.putInt(v, next[v]);
+            long S = 2L * E;
+            Column targets = new Column(Integer.BYTES, S);
+            Column weights = new Column(Double.BYTES, S);
+            // fill newest first so adjacency order matches EdgeWeightedGraph (whose Bag is LIFO)
+            for (int i = E - 1; i >= 0; i--) {
+                int v = from.getInt(i);
+                int w = to.getInt(i);
+                double x = weight.getDouble(i);
+                int s = next[v]++;
+                targets.putInt(s, w);
+                weights.putDouble(s, x);
+                s = next[w]++;
+                targets.putInt(s, v);
+                weights.putDouble(s, x);
+            }
+            return new OffHeapGraph(V, E, offsets, targets, weights);
+        }
+
+        private void validateVertex(int v) {
+            if (v < 0 || v >= V)
+                throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+        }
+    }
+
+    // a fixed-capacity array of ints or doubles spread over direct buffers of at most CHUNK_SIZE elements
+    private static final class Column {
+        private final int width;            // bytes per element
+        private final long capacity;
+        private final ByteBuffer[] chunks;
+
+        Column(int width, long capacity) {
+            this.width = width;
+            this.capacity = capacity;
+            int n = (int) ((capacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+            chunks = new ByteBuffer[n];
+            for (int c = 0; c < n; c++) {
+                long elements = Math.min(CHUNK_SIZE, capacity - ((long) c << CHUNK_SHIFT));
+                chunks[c] = ByteBuffer.allocateDirect((int) elements * width).order(ByteOrder.nativeOrder());
+            }
+        }
+
+        long capacity() {
+            return capacity;
+        }
+
+        // a larger column holding the same elements; full chunks are shared, not copied
+        Column grow(long newCapacity) {
+            return new Column(width, newCapacity, this);
+        }
+
+        private Column(int width, long capacity, Column old) {
+            this.width = width;
+            this.capacity = capacity;
+            int n = (int) ((capacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+            chunks = Arrays.copyOf(old.chunks, n);
+            for (int c = 0; c < n; c++) {
+                int elements = (int) Math.min(CHUNK_SIZE, capacity - ((long) c << CHUNK_SHIFT));
+                ByteBuffer chunk = chunks[c];
+                if (chunk != null && chunk.capacity() == elements * width) continue;
+                ByteBuffer fresh = ByteBuffer.allocateDirect(elements * width).order(ByteOrder.nativeOrder());
+                if (chunk != null) fresh.put(chunk.duplicate().clear());
+                chunks[c] = fresh;
+            }
+        }
+
+        int getInt(long i) {
+            return chunks[(int) (i >>> CHUNK_SHIFT)].getInt((int) (i & CHUNK_MASK) * Integer.BYTES);
+        }
+
+        void putInt(long i, int x) {
+            chunks[(int) (i >>> CHUNK_SHIFT)].putInt((int) (i & CHUNK_MASK) * Integer.BYTES, x);
+        }
+
+        double getDouble(long i) {
+            return chunks[(int) (i >>> CHUNK_SHIFT)].getDouble((int) (i & CHUNK_MASK) * Double.BYTES);
+        }
+
+        void putDouble(long i, double x) {
+            chunks[(int) (i >>> CHUNK_SHIFT)].putDouble((int) (i & CHUNK_MASK) * Double.BYTES, x);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package aitu.edu.mst.core;
+
+import java.util.Arrays;
+
+/**
+ *  The {@code RollbackUF} class is a <em>union–find data type</em> whose
+ *  unions can be undone. Besides the <em>find</em>, <em>union</em> and
+ *  <em>count</em> operations of {@link UF} it has <em>snapshot</em>, which
+ *  marks the current state, and <em>rollback</em>, which undoes every union
+ *  made since a snapshot, most recent first.
+ *  <p>
+ *  This implementation uses <em>weighted quick union by rank</em> without
+ *  path compression, so that a union changes at most one parent link and
+ *  one rank. Every effective union pushes the root it linked onto an undo
+ *  stack; rolling back pops the stack and restores the links. The
+ *  <em>find</em> and <em>union</em> operations take &Theta;(log <em>n</em>)
+ *  time in the worst case, and <em>rollback</em> takes constant time per
+ *  union undone. Offline algorithms that explore many nearby edge sets, such
+ *  as a divide-and-conquer over a batch of queries, can then share one
+ *  structure instead of rebuilding it for every set.
+ *  <p>
+ *  Like {@link ConcurrentUF}, {@link #union(int, int)} reports whether it
+ *  merged two sets.
+ */
+public class RollbackUF {
+    private final int[] parent;     // parent[i] = parent of i
+    private final byte[] rank;      // rank[i] = rank of subtree rooted at i (never more than 31)
+    private int count;              // number of components
+    private int[] history;          // history[k] = root linked below another by the k-th effective union
+    private boolean[] grew;         // grew[k] = whether that union incremented the other root's rank
+    private int size;               // number of unions on the undo stack
+
+    /**
+     * Initializes an empty union-find data structure with
+     * {@code n} elements {@code 0} through {@code n-1}.
+     * Initially, each element is in its own set.
+     *
+     * @param  n the number of elements
+     * @throws IllegalArgumentException if {@code n < 0}
+     */
+    public RollbackUF(int n) {
+        if (n < 0) throw new IllegalArgumentException();
+        count = n;
+        parent = new int[n];
+        rank = new byte[n];
+        for (int i = 0; i < n; i++) parent[i] = i;
+        history = new int[16];
+        grew = new boolean[16];
+    }
+
+    /**
+     * Returns the canonical element of the set containing element {@code p}.
+     *
+     * @param  p an element
+     * @return the canonical element of the set containing {@code p}
+     * @throws IllegalArgumentException unless {@code 0 <= p < n}
+     */
+    public int find(int p) {
+        validate(p);
+        while (p != parent[p]) p = parent[p];
+        return p;
+    }
+
+    /**
+     * Returns the number of sets.
+     *
+     * @return the number of sets (between {@code 1} and {@code n})
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Merges the set containing element {@code p} with the set
+     * containing element {@code q}.
+     *
+     * @param  p one element
+     * @param  q the other element
+     * @return {@code true} if the two sets were merged, {@code false} if
+     *         {@code p} and {@code q} were already in the same set
+     * @throws IllegalArgumentException unless
+     *         both {@code 0 <= p < n} and {@code 0 <= q < n}
+     */
+    public boolean union(int p, int q) {
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP == rootQ) return false;
+
+        // make root of smaller rank point to root of larger rank
+        if (rank[rootP] > rank[rootQ]) {
+            int t = rootP;
+            rootP = rootQ;
+            rootQ = t;
+        }
+        boolean increment = rank[rootP] == rank[rootQ];
+        parent[rootP] = rootQ;
+        if (increment) rank[rootQ]++;
+        if (size == history.length) {
+            history = Arrays.copyOf(history, 2 * size);
+            grew = Arrays.copyOf(grew, 2 * size);
+        }
+        history[size] = rootP;
+        grew[size] = increment;
+        size++;
+        count--;
+        return true;
+    }
+
+    /**
+     * Returns a mark of the current state, to be passed to {@link #rollback(int)}.
+     *
+     * @return the number of unions made and not rolled back so far
+     */
+    public int snapshot() {
+        return size;
+    }
+
+    /**
+     * Undoes every union made since {@code snapshot} was taken.
+     *
+     * @param  snapshot a value returned by {@link #snapshot()}
+     * @throws IllegalArgumentException if {@code snapshot} is negative or
+     *         later than the current state
+     */
+    public void rollback(int snapshot) {
+        if (snapshot < 0 || snapshot > size)
+            throw new IllegalArgumentException("snapshot " + snapshot + " is not between 0 and " + size);
+        while (size > snapshot) {
+            size--;
+            int child = history[size];
+            int root = parent[child];
+            if (grew[size]) rank[root]--;
+            parent[child] = child;
+            count++;
+        }
+    }
+
+    // validate that p is a valid index
+    private void validate(int p) {
+        int n = parent.length;
+        if (p < 0 || p >= n) {
+            throw new IllegalArgumentException("index " + p + " is not between 0 and " + (n-1));
+        }
+    }
+}
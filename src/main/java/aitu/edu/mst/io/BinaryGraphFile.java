@@ -0,0 +1,200 @@
+/******************************************************************************
+ *  Compilation:  javac BinaryGraphFile.java
+ *  Execution:    java BinaryGraphFile input.txt output.bin
+ *  Dependencies: CompactGraph.java CSRGraph.java EdgeWeightedGraph.java In.java
+ *                MappedGraph.java StdOut.java
+ *
+ *  Converts an edge-weighted graph in the text format of EdgeWeightedGraph
+ *  into the binary CSR graph format, then maps the result back.
+ *
+ *  % java BinaryGraphFile tinyEWG.txt tinyEWG.bin
+ *  8 16
+ *
+ ******************************************************************************/
+
+package aitu.edu.mst.io;
+
+import aitu.edu.mst.core.CSRGraph;
+import aitu.edu.mst.core.CompactGraph;
+import aitu.edu.mst.core.EdgeWeightedGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ *  The {@code BinaryGraphFile} class reads and writes edge-weighted graphs in
+ *  a compact binary form of the compressed sparse row layout, so that large
+ *  graphs can be loaded without parsing text.
+ *  <p>
+ *  All values are little-endian. The file consists of a 24-byte header followed
+ *  by three arrays, where <em>S</em> is the number of adjacency slots
+ *  (2<em>E</em>, since every undirected edge occupies two slots):
+ *  <pre>
+ *  offset            size         contents
+ *  0                 4            magic number 0x4D535447 ("MSTG")
+ *  4                 4            format version (1)
+ *  8                 4            number of vertices V
+ *  12                4            number of edges E
+ *  16                4            number of slots S
+ *  20                4            reserved (0)
+ *  24                4 (V + 1)    offsets: adjacency of v is in slots offsets[v] .. offsets[v+1]-1
+ *  24 + 4 (V + 1)    4 S          targets: other endpoint of each slot
+ *  (padded to a multiple of 8)
+ *  ...               8 S          weights: weight of each slot
+ *  </pre>
+ *  <p>
+ *  {@link #map(Path)} maps each array with {@link FileChannel#map} and returns
+ *  a {@link MappedGraph} that reads them in place: opening a graph costs the
+ *  same for ten edges as for fifty million, and the algorithms run directly
+ *  over the mapped buffers. Each array is mapped on its own, so a file may
+ *  exceed 2 GB as long as every single array stays below it.
+ *  <p>
+ *  Only the header and the first and last offsets are checked when mapping;
+ *  the rest of the file is trusted, as produced by {@link #write}.
+ */
+public final class BinaryGraphFile {
+    /** The magic number that starts every graph file ("MSTG"). */
+    public static final int MAGIC = 0x4D535447;
+
+    /** The format version written by this class. */
+    public static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 24;
+    private static final int CHUNK_BYTES = 1 << 16;     // write buffer size
+
+    private BinaryGraphFile() { }
+
+    /**
+     * Writes the graph {@code G} to {@code file}, replacing any existing file.
+     *
+     * @param  G the graph
+     * @param  file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(CompactGraph G, Path file) throws IOException {
+        int V = G.V();
+        int S = V == 0 ? 0 : G.end(V - 1);
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(V).putInt(G.E()).putInt(S).putInt(0);
+
+            for (int v = 0; v < V; v++) {
+                ensure(out, buf, Integer.BYTES);
+                buf.putInt(G.begin(v));
+            }
+            ensure(out, buf, Integer.BYTES);
+            buf.putInt(S);
+
+            for (int i = 0; i < S; i++) {
+                ensure(out, buf, Integer.BYTES);
+                buf.putInt(G.target(i));
+            }
+            long padding = weightsPosition(V, S) - targetsPosition(V) - 4L * S;
+            for (int p = 0; p < padding; p++) {
+                ensure(out, buf, 1);
+                buf.put((byte) 0);
+            }
+
+            for (int i = 0; i < S; i++) {
+                ensure(out, buf, Double.BYTES);
+                buf.putDouble(G.weight(i));
+            }
+            flush(out, buf);
+        }
+    }
+
+    /**
+     * Writes the graph {@code G} to {@code file}, replacing any existing file.
+     * The adjacency order of every vertex is the same as in {@code G.adj(v)}.
+     *
+     * @param  G the edge-weighted graph
+     * @param  file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(EdgeWeightedGraph G, Path file) throws IOException {
+        write(new CSRGraph(G), file);
+    }
+
+    /**
+     * Maps the graph file {@code file} into memory.
+     *
+     * @param  file the file written by {@link #write}
+     * @return a graph that reads the mapped file in place
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a graph file of
+     *         this version, or its length does not match its header
+     */
+    public static MappedGraph map(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size < HEADER_BYTES)
+                throw new IllegalArgumentException("file too short for a graph header: " + file);
+            ByteBuffer header = in.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                                  .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC)
+                throw new IllegalArgumentException("not a graph file: " + file);
+            if (header.getInt(4) != VERSION)
+                throw new IllegalArgumentException("unsupported graph file version " + header.getInt(4) + ": " + file);
+            int V = header.getInt(8);
+            int E = header.getInt(12);
+            int S = header.getInt(16);
+            if (V < 0 || E < 0 || S < 0)
+                throw new IllegalArgumentException("negative size in graph header: " + file);
+            if (size != weightsPosition(V, S) + 8L * S)
+                throw new IllegalArgumentException("file length does not match graph header: " + file);
+
+            ByteBuffer offsets = in.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, 4L * (V + 1))
+                                   .order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer targets = in.map(FileChannel.MapMode.READ_ONLY, targetsPosition(V), 4L * S)
+                                   .order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer weights = in.map(FileChannel.MapMode.READ_ONLY, weightsPosition(V, S), 8L * S)
+                                   .order(ByteOrder.LITTLE_ENDIAN);
+            if (offsets.getInt(0) != 0 || offsets.getInt(4 * V) != S)
+                throw new IllegalArgumentException("corrupt offsets in graph file: " + file);
+
+            // the mappings stay valid after the channel is closed
+            return new MappedGraph(V, E, offsets.asIntBuffer(), targets.asIntBuffer(), weights.asDoubleBuffer());
+        }
+    }
+
+    private static long targetsPosition(int V) {
+        return HEADER_BYTES + 4L * (V + 1);
+    }
+
+    // weights start at the next multiple of 8 so each double is aligned
+    private static long weightsPosition(int V, int S) {
+        return (targetsPosition(V) + 4L * S + 7) & ~7L;
+    }
+
+    // make room for n more bytes, writing out the buffer if it is full
+    private static void ensure(FileChannel out, ByteBuffer buf, int n) throws IOException {
+        if (buf.remaining() < n) flush(out, buf);
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) out.write(buf);
+        buf.clear();
+    }
+
+    /**
+     * Converts the text graph named by {@code args[0]} into the graph file
+     * {@code args[1]} and prints the size of the mapped result.
+     *
+     * @param args the command-line arguments
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        EdgeWeightedGraph G = new EdgeWeightedGraph(new In(args[0]));
+        Path file = Paths.get(args[1]);
+        write(G, file);
+        MappedGraph mapped = map(file);
+        StdOut.println(mapped.V() + " " + mapped.E());
+    }
+}
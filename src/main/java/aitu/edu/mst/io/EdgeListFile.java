@@ -0,0 +1,239 @@
+/******************************************************************************
+ *  Compilation:  javac EdgeListFile.java
+ *  Execution:    java EdgeListFile input.txt
+ *  Dependencies: CSRGraph.java Tokenizer.java StdOut.java
+ *
+ *  Loads an edge-weighted graph in the text format of EdgeWeightedGraph,
+ *  parsing the edge lines on all cores, and prints its size.
+ *
+ *  % java EdgeListFile tinyEWG.txt
+ *  8 16
+ *
+ ******************************************************************************/
+
+package aitu.edu.mst.io;
+
+import aitu.edu.mst.core.CSRGraph;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ *  The {@code EdgeListFile} class loads large edge-weighted graphs from text
+ *  files in parallel. The format is the one read by
+ *  {@code EdgeWeightedGraph(In)}: the number of vertices <em>V</em>, the
+ *  number of edges <em>E</em>, then <em>E</em> triples {@code v w weight},
+ *  with the restriction that each triple sits on a line of its own
+ *  (blank lines are allowed).
+ *  <p>
+ *  The header is read first. The rest of the file is then cut into chunks
+ *  of roughly equal size, each ending just after a newline, and every chunk
+ *  is memory-mapped and parsed on the common fork-join pool into its own
+ *  primitive {@code int}/{@code int}/{@code double} arrays, with numbers
+ *  converted straight from the mapped bytes. The chunks are finally merged in
+ *  file order through {@link CSRGraph.Builder#addEdges}, so the result is
+ *  exactly {@code new CSRGraph(new EdgeWeightedGraph(new In(file)))}, without
+ *  creating an {@code Edge} per line. Each chunk is mapped on its own, so the
+ *  file may be far larger than 2 GB.
+ *  <p>
+ *  Malformed input is reported with an {@link IllegalArgumentException}
+ *  giving the byte offset of the offending line.
+ */
+public final class EdgeListFile {
+    private static final int DEFAULT_CHUNK_BYTES = 1 << 24;    // 16 MB per parse task
+    private static final int SCAN_BYTES = 1 << 16;              // window used to find the header and newlines
+
+    private EdgeListFile() { }
+
+    // the edges parsed from one chunk
+    private static final class Chunk {
+        final long start;               // first byte, inclusive
+        final long end;                 // last byte, exclusive
+        int n;
+        int[] from = new int[16];
+        int[] to = new int[16];
+        double[] weight = new double[16];
+
+        Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        void add(int v, int w, double x) {
+            if (n == from.length) {
+                from = Arrays.copyOf(from, 2 * n);
+                to = Arrays.copyOf(to, 2 * n);
+                weight = Arrays.copyOf(weight, 2 * n);
+            }
+            from[n] = v;
+            to[n] = w;
+            weight[n] = x;
+            n++;
+        }
+    }
+
+    /**
+     * Reads the graph in {@code file}.
+     *
+     * @param  file the text file
+     * @return the graph, with the adjacency order of {@code EdgeWeightedGraph(In)}
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid edge list
+     */
+    public static CSRGraph read(Path file) throws IOException {
+        return read(file, DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Reads the graph in {@code file}, parsing chunks of about
+     * {@code chunkBytes} bytes in parallel.
+     *
+     * @param  file the text file
+     * @param  chunkBytes the target size of each chunk
+     * @return the graph, with the adjacency order of {@code EdgeWeightedGraph(In)}
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if {@code chunkBytes < 1}
+     * @throws IllegalArgumentException if the file is not a valid edge list
+     */
+    public static CSRGraph read(Path file, int chunkBytes) throws IOException {
+        if (chunkBytes < 1) throw new IllegalArgumentException("chunk size must be positive: " + chunkBytes);
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+
+            // header: the first two tokens
+            MappedByteBuffer head = in.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, SCAN_BYTES));
+            byte[] token = new byte[64];
+            int[] header = new int[2];
+            int pos = 0;
+            for (int k = 0; k < 2; k++) {
+                while (pos < head.limit() && Tokenizer.isWhitespace(head.get(pos))) pos++;
+                int from = pos;
+                while (pos < head.limit() && !Tokenizer.isWhitespace(head.get(pos))) pos++;
+                if (from == pos || pos == head.limit() && head.limit() < size)
+                    throw new IllegalArgumentException("missing V and E header: " + file);
+                token = copy(head, from, pos, token);
+                try {
+                    header[k] = Tokenizer.parseInt(token, 0, pos - from);
+                }
+                catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("invalid V and E header: " + file, e);
+                }
+            }
+            int V = header[0];
+            int E = header[1];
+            if (V < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+            if (E < 0) throw new IllegalArgumentException("Number of edges must be non-negative");
+
+            // cut the body into newline-aligned chunks
+            List<Chunk> chunks = new ArrayList<>();
+            long start = pos;
+            while (start < size) {
+                long end = start + chunkBytes >= size ? size : nextLineStart(in, start + chunkBytes, size);
+                chunks.add(new Chunk(start, end));
+                start = end;
+            }
+
+            try {
+                IntStream.range(0, chunks.size()).parallel().forEach(c -> parse(in, chunks.get(c), V));
+            }
+            catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            long found = 0;
+            for (Chunk c : chunks) found += c.n;
+            if (found != E)
+                throw new IllegalArgumentException("header declares " + E + " edges but the file holds " + found);
+            CSRGraph.Builder builder = new CSRGraph.Builder(V, E);
+            for (Chunk c : chunks) builder.addEdges(c.from, c.to, c.weight, c.n);
+            return builder.build();
+        }
+    }
+
+    // position just after the first newline at or after p, or size if there is none
+    private static long nextLineStart(FileChannel in, long p, long size) throws IOException {
+        while (p < size) {
+            MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, p, Math.min(size - p, SCAN_BYTES));
+            for (int i = 0; i < window.limit(); i++)
+                if (window.get(i) == '\n') return p + i + 1;
+            p += window.limit();
+        }
+        return size;
+    }
+
+    // parse every line of the chunk into its edge arrays
+    private static void parse(FileChannel in, Chunk chunk, int V) {
+        MappedByteBuffer buf;
+        try {
+            buf = in.map(FileChannel.MapMode.READ_ONLY, chunk.start, chunk.end - chunk.start);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] token = new byte[64];
+        int limit = buf.limit();
+        int pos = 0;
+        while (pos < limit) {
+            int lineStart = pos;
+            int v = 0, w = 0;
+            double weight = 0.0;
+            int fields = 0;
+            while (true) {
+                // skip blanks within the line
+                while (pos < limit && buf.get(pos) != '\n' && Tokenizer.isWhitespace(buf.get(pos))) pos++;
+                if (pos == limit || buf.get(pos) == '\n') break;
+                int from = pos;
+                while (pos < limit && !Tokenizer.isWhitespace(buf.get(pos))) pos++;
+                int length = pos - from;
+                token = copy(buf, from, pos, token);
+                try {
+                    if      (fields == 0) v = Tokenizer.parseInt(token, 0, length);
+                    else if (fields == 1) w = Tokenizer.parseInt(token, 0, length);
+                    else if (fields == 2) weight = Tokenizer.parseDouble(token, 0, length);
+                }
+                catch (NumberFormatException e) {
+                    throw invalidLine(chunk, lineStart, e);
+                }
+                fields++;
+            }
+            if (pos < limit) pos++;             // the newline
+            if (fields == 0) continue;
+            if (fields != 3) throw invalidLine(chunk, lineStart, null);
+            if (v < 0 || v >= V) throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+            if (w < 0 || w >= V) throw new IllegalArgumentException("vertex " + w + " is not between 0 and " + (V-1));
+            chunk.add(v, w, weight);
+        }
+    }
+
+    // copy buf[from..to) into token, growing it if needed
+    private static byte[] copy(MappedByteBuffer buf, int from, int to, byte[] token) {
+        if (to - from > token.length) token = new byte[Math.max(to - from, 2 * token.length)];
+        buf.get(from, token, 0, to - from);
+        return token;
+    }
+
+    private static IllegalArgumentException invalidLine(Chunk chunk, int lineStart, Throwable cause) {
+        return new IllegalArgumentException("expected 'v w weight' on the line at byte " + (chunk.start + lineStart), cause);
+    }
+
+    /**
+     * Loads the edge list named by {@code args[0]} and prints its number of
+     * vertices and edges.
+     *
+     * @param args the command-line arguments
+     * @throws IOException if the file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        CSRGraph G = read(Paths.get(args[0]));
+        StdOut.println(G.V() + " " + G.E());
+    }
+}
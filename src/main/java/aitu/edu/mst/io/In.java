@@ -20,10 +20,11 @@ import java.net.URISyntaxException;
 import java.net.Socket;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.InputMismatchException;
-import java.util.Locale;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
 import java.util.regex.Pattern;
@@ -42,15 +43,17 @@ import java.util.regex.Pattern;
  *  <i>Computer Science: An Interdisciplinary Approach</i>
  *  by Robert Sedgewick and Kevin Wayne.
  *  <p>
- *  Like {@link Scanner}, reading a token also consumes preceding Java
+ *  Like {@link Scanner}, reading a token also consumes preceding
  *  whitespace, reading a full line consumes
  *  the following end-of-line delimiter, while reading a character consumes
  *  nothing extra.
  *  <p>
- *  Whitespace is defined in {@link Character#isWhitespace(char)}. Newlines
- *  consist of \n, \r, \r\n, and Unicode hex code points 0x2028, 0x2029, 0x0085;
- *  see <a href="http://www.docjar.com/html/api/java/util/Scanner.java.html">
- *  Scanner.java</a> (NB: Java 6u23 and earlier uses only \r, \r, \r\n).
+ *  Input is read as UTF-8 bytes through an internal buffer rather than a
+ *  {@link Scanner}: tokens are split on ASCII whitespace and numbers are
+ *  parsed directly from the bytes, without creating a {@code String} per
+ *  token. Newlines consist of \n, \r and \r\n. The bulk methods
+ *  {@link #readInts(int[])} and {@link #readDoubles(double[])} fill an
+ *  existing array.
  *
  *  @author David Pritchard
  *  @author Robert Sedgewick
@@ -60,33 +63,18 @@ public final class In {
 
     ///// begin: section (1 of 2) of code duplicated from In to StdIn.
 
-    // assume Unicode UTF-8 encoding
-    private static final String CHARSET_NAME = "UTF-8";
-
-    // assume language = English, country = US for consistency with System.out.
-    private static final Locale LOCALE = Locale.US;
-
-    // the default token separator; we maintain the invariant that this value
-    // is held by the scanner's delimiter between calls
+    // the token separator used by readAllStrings()
     private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\p{javaWhitespace}+");
 
-    // makes whitespace characters significant
-    private static final Pattern EMPTY_PATTERN = Pattern.compile("");
-
-    // used to read the entire input. source:
-    // http://weblogs.java.net/blog/pat/archive/2004/10/stupid_scanner_1.html
-    private static final Pattern EVERYTHING_PATTERN = Pattern.compile("\\A");
-
     //// end: section (1 of 2) of code duplicated from In to StdIn.
 
-    private Scanner scanner;
+    private Tokenizer tokenizer;
 
    /**
      * Initializes an input stream from standard input.
      */
     public In() {
-        scanner = new Scanner(new BufferedInputStream(System.in), CHARSET_NAME);
-        scanner.useLocale(LOCALE);
+        tokenizer = new Tokenizer(new BufferedInputStream(System.in));
     }
 
    /**
@@ -100,8 +88,7 @@ public final class In {
         if (socket == null) throw new IllegalArgumentException("socket argument is null");
         try {
             InputStream is = socket.getInputStream();
-            scanner = new Scanner(new BufferedInputStream(is), CHARSET_NAME);
-            scanner.useLocale(LOCALE);
+            tokenizer = new Tokenizer(is);
         }
         catch (IOException ioe) {
             throw new IllegalArgumentException("could not open socket: " + socket, ioe);
@@ -120,8 +107,7 @@ public final class In {
         try {
             URLConnection site = url.openConnection();
             InputStream is     = site.getInputStream();
-            scanner            = new Scanner(new BufferedInputStream(is), CHARSET_NAME);
-            scanner.useLocale(LOCALE);
+            tokenizer          = new Tokenizer(is);
         }
         catch (IOException ioe) {
             throw new IllegalArgumentException("could not read URL: '" + url + "'", ioe);
@@ -138,11 +124,9 @@ public final class In {
     public In(File file) {
         if (file == null) throw new IllegalArgumentException("file argument is null");
         try {
-            // for consistency with StdIn, wrap with BufferedInputStream instead of use
-            // file as argument to Scanner
+            // the tokenizer does its own buffering
             FileInputStream fis = new FileInputStream(file);
-            scanner = new Scanner(new BufferedInputStream(fis), CHARSET_NAME);
-            scanner.useLocale(LOCALE);
+            tokenizer = new Tokenizer(fis);
         }
         catch (IOException ioe) {;
             throw new IllegalArgumentException("could not read file: " + file, ioe);
@@ -165,11 +149,9 @@ public final class In {
             // first try to read file from local file system
             File file = new File(name);
             if (file.exists()) {
-                // for consistency with StdIn, wrap with BufferedInputStream instead of use
-                // file as argument to Scanner
+                // the tokenizer does its own buffering
                 FileInputStream fis = new FileInputStream(file);
-                scanner = new Scanner(new BufferedInputStream(fis), CHARSET_NAME);
-                scanner.useLocale(LOCALE);
+                tokenizer = new Tokenizer(fis);
                 return;
             }
 
@@ -196,8 +178,7 @@ public final class In {
             // site.addRequestProperty("User-Agent", "Mozilla/4.76");
 
             InputStream is     = site.getInputStream();
-            scanner            = new Scanner(new BufferedInputStream(is), CHARSET_NAME);
-            scanner.useLocale(LOCALE);
+            tokenizer          = new Tokenizer(is);
         }
         catch (IOException | URISyntaxException e) {
             throw new IllegalArgumentException("could not read: '" + name + "'");
@@ -209,14 +190,16 @@ public final class In {
      * {@code new Scanner(String)} to read from a string.
      * <p>
      * Note that this does not create a defensive copy, so the
-     * scanner will be mutated as you read on.
+     * scanner will be mutated as you read on. The scanner is consumed
+     * a line at a time, so its last line always reads as if it ended
+     * with a newline.
      *
      * @param  scanner the scanner
      * @throws IllegalArgumentException if {@code scanner} is {@code null}
      */
     public In(Scanner scanner) {
         if (scanner == null) throw new IllegalArgumentException("scanner argument is null");
-        this.scanner = scanner;
+        this.tokenizer = new Tokenizer(new ScannerInputStream(scanner));
     }
 
     /**
@@ -225,7 +208,7 @@ public final class In {
      * @return {@code true} if this input stream exists; {@code false} otherwise
      */
     public boolean exists()  {
-        return scanner != null;
+        return tokenizer != null;
     }
 
     ////  begin: section (2 of 2) of code duplicated from In to StdIn,
@@ -240,7 +223,7 @@ public final class In {
      *         {@code false} otherwise
      */
     public boolean isEmpty() {
-        return !scanner.hasNext();
+        return !tokenizer.hasNextToken();
     }
 
    /**
@@ -253,7 +236,7 @@ public final class In {
      *         {@code false} otherwise
      */
     public boolean hasNextLine() {
-        return scanner.hasNextLine();
+        return tokenizer.hasNextChar();
     }
 
     /**
@@ -265,10 +248,7 @@ public final class In {
      *         {@code false} otherwise
      */
     public boolean hasNextChar() {
-        scanner.useDelimiter(EMPTY_PATTERN);
-        boolean result = scanner.hasNext();
-        scanner.useDelimiter(WHITESPACE_PATTERN);
-        return result;
+        return tokenizer.hasNextChar();
     }
 
 
@@ -278,14 +258,7 @@ public final class In {
      * @return the next line in this input stream; {@code null} if no such line
      */
     public String readLine() {
-        String line;
-        try {
-            line = scanner.nextLine();
-        }
-        catch (NoSuchElementException e) {
-            line = null;
-        }
-        return line;
+        return tokenizer.readLine();
     }
 
     /**
@@ -295,18 +268,10 @@ public final class In {
      * @throws NoSuchElementException if the input stream is empty
      */
     public char readChar() {
-        scanner.useDelimiter(EMPTY_PATTERN);
-        try {
-            String ch = scanner.next();
-            assert ch.length() == 1 : "Internal (Std)In.readChar() error!"
-                + " Please contact the authors.";
-            scanner.useDelimiter(WHITESPACE_PATTERN);
-            return ch.charAt(0);
-        }
-        catch (NoSuchElementException e) {
+        if (!tokenizer.hasNextChar())
             throw new NoSuchElementException("attempts to read a 'char' value from the input stream, "
                                            + "but no more tokens are available");
-        }
+        return tokenizer.readChar();
     }
 
 
@@ -316,13 +281,7 @@ public final class In {
      * @return the remainder of this input stream, as a string
      */
     public String readAll() {
-        if (!scanner.hasNextLine())
-            return "";
-
-        String result = scanner.useDelimiter(EVERYTHING_PATTERN).next();
-        // not that important to reset delimeter, since now scanner is empty
-        scanner.useDelimiter(WHITESPACE_PATTERN); // but let's do it anyway
-        return result;
+        return tokenizer.readAll();
     }
 
 
@@ -333,13 +292,10 @@ public final class In {
      * @throws NoSuchElementException if the input stream is empty
      */
     public String readString() {
-        try {
-            return scanner.next();
-        }
-        catch (NoSuchElementException e) {
+        if (!tokenizer.nextToken())
             throw new NoSuchElementException("attempts to read a 'String' value from the input stream, "
                                            + "but no more tokens are available");
-        }
+        return tokenizer.token();
     }
 
    /**
@@ -351,17 +307,15 @@ public final class In {
      * @throws InputMismatchException if the next token cannot be parsed as an {@code int}
      */
     public int readInt() {
+        if (!tokenizer.nextToken())
+            throw new NoSuchElementException("attemps to read an 'int' value from the input stream, "
+                                           + "but no more tokens are available");
         try {
-            return scanner.nextInt();
+            return tokenizer.tokenAsInt();
         }
-        catch (InputMismatchException e) {
-            String token = scanner.next();
+        catch (NumberFormatException e) {
             throw new InputMismatchException("attempts to read an 'int' value from the input stream, "
-                                           + "but the next token is \"" + token + "\"");
-        }
-        catch (NoSuchElementException e) {
-            throw new NoSuchElementException("attemps to read an 'int' value from the input stream, "
-                                           + "but no more tokens are available");
+                                           + "but the next token is \"" + tokenizer.token() + "\"");
         }
     }
 
@@ -374,17 +328,15 @@ public final class In {
      * @throws InputMismatchException if the next token cannot be parsed as a {@code double}
      */
     public double readDouble() {
+        if (!tokenizer.nextToken())
+            throw new NoSuchElementException("attemps to read a 'double' value from the input stream, "
+                                           + "but no more tokens are available");
         try {
-            return scanner.nextDouble();
+            return tokenizer.tokenAsDouble();
         }
-        catch (InputMismatchException e) {
-            String token = scanner.next();
+        catch (NumberFormatException e) {
             throw new InputMismatchException("attempts to read a 'double' value from the input stream, "
-                                           + "but the next token is \"" + token + "\"");
-        }
-        catch (NoSuchElementException e) {
-            throw new NoSuchElementException("attemps to read a 'double' value from the input stream, "
-                                           + "but no more tokens are available");
+                                           + "but the next token is \"" + tokenizer.token() + "\"");
         }
     }
 
@@ -397,17 +349,15 @@ public final class In {
      * @throws InputMismatchException if the next token cannot be parsed as a {@code float}
      */
     public float readFloat() {
+        if (!tokenizer.nextToken())
+            throw new NoSuchElementException("attemps to read a 'float' value from the input stream, "
+                                           + "but no more tokens are available");
         try {
-            return scanner.nextFloat();
+            return tokenizer.tokenAsFloat();
         }
-        catch (InputMismatchException e) {
-            String token = scanner.next();
+        catch (NumberFormatException e) {
             throw new InputMismatchException("attempts to read a 'float' value from the input stream, "
-                                           + "but the next token is \"" + token + "\"");
-        }
-        catch (NoSuchElementException e) {
-            throw new NoSuchElementException("attemps to read a 'float' value from the input stream, "
-                                           + "but no more tokens are available");
+                                           + "but the next token is \"" + tokenizer.token() + "\"");
         }
     }
 
@@ -420,17 +370,15 @@ public final class In {
      * @throws InputMismatchException if the next token cannot be parsed as a {@code long}
      */
     public long readLong() {
+        if (!tokenizer.nextToken())
+            throw new NoSuchElementException("attemps to read a 'long' value from the input stream, "
+                                           + "but no more tokens are available");
         try {
-            return scanner.nextLong();
+            return tokenizer.tokenAsLong();
         }
-        catch (InputMismatchException e) {
-            String token = scanner.next();
+        catch (NumberFormatException e) {
             throw new InputMismatchException("attempts to read a 'long' value from the input stream, "
-                                           + "but the next token is \"" + token + "\"");
-        }
-        catch (NoSuchElementException e) {
-            throw new NoSuchElementException("attemps to read a 'long' value from the input stream, "
-                                           + "but no more tokens are available");
+                                           + "but the next token is \"" + tokenizer.token() + "\"");
         }
     }
 
@@ -443,17 +391,15 @@ public final class In {
      * @throws InputMismatchException if the next token cannot be parsed as a {@code short}
      */
     public short readShort() {
+        if (!tokenizer.nextToken())
+            throw new NoSuchElementException("attemps to read a 'short' value from the input stream, "
+                                           + "but no more tokens are available");
         try {
-            return scanner.nextShort();
+            return tokenizer.tokenAsShort();
         }
-        catch (InputMismatchException e) {
-            String token = scanner.next();
+        catch (NumberFormatException e) {
             throw new InputMismatchException("attempts to read a 'short' value from the input stream, "
-                                           + "but the next token is \"" + token + "\"");
-        }
-        catch (NoSuchElementException e) {
-            throw new NoSuchElementException("attemps to read a 'short' value from the input stream, "
-                                           + "but no more tokens are available");
+                                           + "but the next token is \"" + tokenizer.token() + "\"");
         }
     }
 
@@ -468,17 +414,15 @@ public final class In {
      * @throws InputMismatchException if the next token cannot be parsed as a {@code byte}
      */
     public byte readByte() {
+        if (!tokenizer.nextToken())
+            throw new NoSuchElementException("attemps to read a 'byte' value from the input stream, "
+                                           + "but no more tokens are available");
         try {
-            return scanner.nextByte();
+            return tokenizer.tokenAsByte();
         }
-        catch (InputMismatchException e) {
-            String token = scanner.next();
+        catch (NumberFormatException e) {
             throw new InputMismatchException("attempts to read a 'byte' value from the input stream, "
-                                           + "but the next token is \"" + token + "\"");
-        }
-        catch (NoSuchElementException e) {
-            throw new NoSuchElementException("attemps to read a 'byte' value from the input stream, "
-                                           + "but no more tokens are available");
+                                           + "but the next token is \"" + tokenizer.token() + "\"");
         }
     }
 
@@ -547,11 +491,13 @@ public final class In {
      * @return all remaining lines in this input stream, as an array of integers
      */
     public int[] readAllInts() {
-        String[] fields = readAllStrings();
-        int[] vals = new int[fields.length];
-        for (int i = 0; i < fields.length; i++)
-            vals[i] = Integer.parseInt(fields[i]);
-        return vals;
+        int[] vals = new int[16];
+        int n = 0;
+        while (tokenizer.nextToken()) {
+            if (n == vals.length) vals = Arrays.copyOf(vals, 2 * n);
+            vals[n++] = tokenizer.tokenAsInt();
+        }
+        return Arrays.copyOf(vals, n);
     }
 
     /**
@@ -561,11 +507,13 @@ public final class In {
      * @return all remaining lines in this input stream, as an array of longs
      */
     public long[] readAllLongs() {
-        String[] fields = readAllStrings();
-        long[] vals = new long[fields.length];
-        for (int i = 0; i < fields.length; i++)
-            vals[i] = Long.parseLong(fields[i]);
-        return vals;
+        long[] vals = new long[16];
+        int n = 0;
+        while (tokenizer.nextToken()) {
+            if (n == vals.length) vals = Arrays.copyOf(vals, 2 * n);
+            vals[n++] = tokenizer.tokenAsLong();
+        }
+        return Arrays.copyOf(vals, n);
     }
 
     /**
@@ -575,20 +523,119 @@ public final class In {
      * @return all remaining lines in this input stream, as an array of doubles
      */
     public double[] readAllDoubles() {
-        String[] fields = readAllStrings();
-        double[] vals = new double[fields.length];
-        for (int i = 0; i < fields.length; i++)
-            vals[i] = Double.parseDouble(fields[i]);
-        return vals;
+        double[] vals = new double[16];
+        int n = 0;
+        while (tokenizer.nextToken()) {
+            if (n == vals.length) vals = Arrays.copyOf(vals, 2 * n);
+            vals[n++] = tokenizer.tokenAsDouble();
+        }
+        return Arrays.copyOf(vals, n);
+    }
+
+    /**
+     * Reads integers from this input stream into {@code dst}, filling it.
+     *
+     * @param  dst the destination array
+     * @throws NoSuchElementException if fewer than {@code dst.length} tokens remain
+     * @throws InputMismatchException if a token cannot be parsed as an {@code int}
+     */
+    public void readInts(int[] dst) {
+        readInts(dst, 0, dst.length);
+    }
+
+    /**
+     * Reads {@code length} integers from this input stream into
+     * {@code dst[offset]} through {@code dst[offset + length - 1]}.
+     *
+     * @param  dst the destination array
+     * @param  offset the first index to write
+     * @param  length the number of integers to read
+     * @throws IndexOutOfBoundsException if the range is not within {@code dst}
+     * @throws NoSuchElementException if fewer than {@code length} tokens remain
+     * @throws InputMismatchException if a token cannot be parsed as an {@code int}
+     */
+    public void readInts(int[] dst, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > dst.length - length)
+            throw new IndexOutOfBoundsException("range [" + offset + ", " + offset + " + " + length + ") out of bounds for length " + dst.length);
+        for (int i = offset; i < offset + length; i++)
+            dst[i] = readInt();
+    }
+
+    /**
+     * Reads doubles from this input stream into {@code dst}, filling it.
+     *
+     * @param  dst the destination array
+     * @throws NoSuchElementException if fewer than {@code dst.length} tokens remain
+     * @throws InputMismatchException if a token cannot be parsed as a {@code double}
+     */
+    public void readDoubles(double[] dst) {
+        readDoubles(dst, 0, dst.length);
+    }
+
+    /**
+     * Reads {@code length} doubles from this input stream into
+     * {@code dst[offset]} through {@code dst[offset + length - 1]}.
+     *
+     * @param  dst the destination array
+     * @param  offset the first index to write
+     * @param  length the number of doubles to read
+     * @throws IndexOutOfBoundsException if the range is not within {@code dst}
+     * @throws NoSuchElementException if fewer than {@code length} tokens remain
+     * @throws InputMismatchException if a token cannot be parsed as a {@code double}
+     */
+    public void readDoubles(double[] dst, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > dst.length - length)
+            throw new IndexOutOfBoundsException("range [" + offset + ", " + offset + " + " + length + ") out of bounds for length " + dst.length);
+        for (int i = offset; i < offset + length; i++)
+            dst[i] = readDouble();
     }
 
     ///// end: section (2 of 2) of code duplicated from In to StdIn */
 
+    // feeds the lines of a Scanner to the tokenizer as UTF-8 bytes
+    private static final class ScannerInputStream extends InputStream {
+        private final Scanner scanner;
+        private byte[] line = new byte[0];
+        private int pos;
+
+        ScannerInputStream(Scanner scanner) {
+            this.scanner = scanner;
+        }
+
+        private boolean fill() {
+            if (pos < line.length) return true;
+            if (!scanner.hasNextLine()) return false;
+            line = (scanner.nextLine() + "\n").getBytes(StandardCharsets.UTF_8);
+            pos = 0;
+            return true;
+        }
+
+        @Override
+        public int read() {
+            return fill() ? line[pos++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!fill()) return -1;
+            int n = Math.min(len, line.length - pos);
+            System.arraycopy(line, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+            scanner.close();
+        }
+    }
+
    /**
      * Closes this input stream.
      */
     public void close() {
-        scanner.close();
+        tokenizer.close();
     }
 
     /**
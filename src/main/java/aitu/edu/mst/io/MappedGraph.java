@@ -0,0 +1,100 @@
+package aitu.edu.mst.io;
+
+import aitu.edu.mst.core.CompactGraph;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+/**
+ *  The {@code MappedGraph} class is a {@link CompactGraph} whose offsets,
+ *  targets and weights are read straight out of a memory-mapped graph file
+ *  written by {@link BinaryGraphFile}. Nothing is parsed or copied onto the
+ *  Java heap: every accessor is one absolute read from the mapped buffers,
+ *  and the operating system pages the file in as the algorithm touches it.
+ *  <p>
+ *  A {@code MappedGraph} is immutable and safe to share between threads.
+ *  It is obtained from {@link BinaryGraphFile#map(java.nio.file.Path)}.
+ */
+public final class MappedGraph implements CompactGraph {
+    private final int V;
+    private final int E;
+    private final IntBuffer offsets;    // adjacency of v is in slots offsets[v] .. offsets[v+1]-1
+    private final IntBuffer targets;    // targets[i] = other endpoint of slot i
+    private final DoubleBuffer weights; // weights[i] = weight of slot i
+
+    MappedGraph(int V, int E, IntBuffer offsets, IntBuffer targets, DoubleBuffer weights) {
+        this.V = V;
+        this.E = E;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Returns the number of vertices in this graph.
+     *
+     * @return the number of vertices in this graph
+     */
+    public int V() {
+        return V;
+    }
+
+    /**
+     * Returns the number of edges in this graph.
+     *
+     * @return the number of edges in this graph
+     */
+    public int E() {
+        return E;
+    }
+
+    /**
+     * Returns the first adjacency slot of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the first slot of the adjacency of {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int begin(int v) {
+        validateVertex(v);
+        return offsets.get(v);
+    }
+
+    /**
+     * Returns one past the last adjacency slot of vertex {@code v}.
+     *
+     * @param  v the vertex
+     * @return the slot just after the adjacency of {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < V}
+     */
+    public int end(int v) {
+        validateVertex(v);
+        return offsets.get(v + 1);
+    }
+
+    /**
+     * Returns the endpoint stored in adjacency slot {@code i}.
+     *
+     * @param  i the slot
+     * @return the other endpoint of the edge in slot {@code i}
+     */
+    public int target(int i) {
+        return targets.get(i);
+    }
+
+    /**
+     * Returns the weight stored in adjacency slot {@code i}.
+     *
+     * @param  i the slot
+     * @return the weight of the edge in slot {@code i}
+     */
+    public double weight(int i) {
+        return weights.get(i);
+    }
+
+    // throw an IllegalArgumentException unless {@code 0 <= v < V}
+    private void validateVertex(int v) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V-1));
+    }
+}
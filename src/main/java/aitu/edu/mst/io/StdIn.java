@@ -10,8 +10,8 @@
 package aitu.edu.mst.io;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.InputMismatchException;
-import java.util.Locale;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
 import java.util.regex.Pattern;
@@ -62,16 +62,19 @@ import java.util.regex.Pattern;
  *  type. If it succeeds, it returns that value; otherwise, it
  *  throws an {@link InputMismatchException}.
  *  <p>
- *  <em>Whitespace</em> includes spaces, tabs, and newlines; the full definition
- *  is inherited from {@link Character#isWhitespace(char)}.
+ *  <em>Whitespace</em> is the ASCII subset of {@link Character#isWhitespace(char)}:
+ *  space, tab, line feed, vertical tab, form feed, carriage return, and
+ *  0x1C through 0x1F. Other Unicode spaces, such as the no-break space
+ *  {@code \}{@code u00A0}, are part of a token.
  *  A <em>token</em> is a maximal sequence of non-whitespace characters.
- *  The precise rules for describing which tokens can be converted to
- *  integers and floating-point numbers are inherited from
- *  <a href = "http://docs.oracle.com/javase/7/docs/api/java/util/Scanner.html#number-syntax">Scanner</a>,
- *  using the locale {@link Locale#US}; the rules
- *  for floating-point numbers are slightly different
- *  from those in {@link Double#valueOf(String)},
- *  but unlikely to be of concern to most programmers.
+ *  An integer token is an optional {@code +} or {@code -} followed by ASCII
+ *  decimal digits, with no grouping separators, so {@code 1,000} is not an
+ *  integer. A floating-point token may be anything
+ *  {@link Double#parseDouble(String)} accepts: short decimals are converted
+ *  directly from the bytes, and every other form (more than 15 significant
+ *  digits, large exponents, hexadecimal, {@code NaN}, {@code Infinity}) is
+ *  passed to {@link Double#parseDouble(String)}. {@link #readFloat()} uses
+ *  {@link Float#parseFloat(String)}. Neither depends on the default locale.
  *  <p>
  *  As an example, the following code fragment reads integers from standard input,
  *  one at a time, and prints them one per line.
@@ -115,9 +118,8 @@ import java.util.regex.Pattern;
  *  discarding the trailing line separator.
  *  <p>
  *  A <em>line separator</em> is defined to be one of the following strings:
- *  {@code \n} (Linux), {@code \r} (old Macintosh),
- *  {@code \r\n} (Windows),
- *  {@code \}{@code u2028}, {@code \}{@code u2029}, or {@code \}{@code u0085}.
+ *  {@code \n} (Linux), {@code \r} (old Macintosh), or
+ *  {@code \r\n} (Windows).
  *  <p>
  *  As an example, the following code fragment reads text from standard input,
  *  one line at a time, and prints it to standard output.
@@ -166,12 +168,14 @@ import java.util.regex.Pattern;
  *       See {@link In} for an object-oriented version that handles
  *       input from files, URLs,
  *       and sockets.
- *  <li> {@code StdIn} uses whitespace as the delimiter pattern
- *       that separates tokens.
+ *  <li> {@code StdIn} uses ASCII whitespace as the delimiter
+ *       that separates tokens ({@link #readAllStrings()} splits on
+ *       all of {@link Character#isWhitespace(char)}).
  *       {@link Scanner} supports arbitrary delimiter patterns.
  *  <li> {@code StdIn} coerces the character-set encoding to UTF-8,
  *       which is the most widely used character encoding for Unicode.
- *  <li> {@code StdIn} coerces the locale to {@link Locale#US},
+ *  <li> {@code StdIn} ignores the locale: numbers always use {@code .} as
+ *       the decimal point and take no grouping separators,
  *       for consistency with {@link StdOut}, {@link Double#parseDouble(String)},
  *       and floating-point literals.
  *  <li> {@code StdIn} has convenient methods for reading a single
@@ -181,6 +185,8 @@ import java.util.regex.Pattern;
  *  <p>
  *  Historical note: {@code StdIn} preceded {@code Scanner}; when
  *  {@code Scanner} was introduced, this class was re-implemented to use {@code Scanner}.
+ *  It now reads UTF-8 bytes through its own buffer and parses numbers
+ *  directly from them, splitting tokens on ASCII whitespace.
  *  <p>
  *  <b>Using standard input.</b>
  *  Standard input is a fundamental operating system abstraction on Mac OS X,
@@ -214,25 +220,12 @@ public final class StdIn {
 
     /*** begin: section (1 of 2) of code duplicated from In to StdIn. */
 
-    // assume Unicode UTF-8 encoding
-    private static final String CHARSET_NAME = "UTF-8";
-
-    // assume language = English, country = US for consistency with System.out.
-    private static final Locale LOCALE = Locale.US;
-
-    // the default token separator; we maintain the invariant that this value
-    // is held by the scanner's delimiter between calls
+    // the token separator used by readAllStrings()
     private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\p{javaWhitespace}+");
 
-    // makes whitespace significant
-    private static final Pattern EMPTY_PATTERN = Pattern.compile("");
-
-    // used to read the entire input
-    private static final Pattern EVERYTHING_PATTERN = Pattern.compile("\\A");
-
     /*** end: section (1 of 2) of code duplicated from In to StdIn. */
 
-    private static Scanner scanner;
+    private static Tokenizer tokenizer;
 
     // it doesn't make sense to instantiate this class
     private StdIn() { }
@@ -249,7 +242,7 @@ public final class StdIn {
      *         for whitespace); {@code false} otherwise
      */
     public static boolean isEmpty() {
-        return !scanner.hasNext();
+        return !tokenizer.hasNextToken();
     }
 
    /**
@@ -262,7 +255,7 @@ public final class StdIn {
      *         {@code false} otherwise
      */
     public static boolean hasNextLine() {
-        return scanner.hasNextLine();
+        return tokenizer.hasNextChar();
     }
 
     /**
@@ -274,10 +267,7 @@ public final class StdIn {
      *         {@code false} otherwise
      */
     public static boolean hasNextChar() {
-        scanner.useDelimiter(EMPTY_PATTERN);
-        boolean result = scanner.hasNext();
-        scanner.useDelimiter(WHITESPACE_PATTERN);
-        return result;
+        return tokenizer.hasNextChar();
     }
 
 
@@ -288,14 +278,7 @@ public final class StdIn {
      *         {@code null} if no such line
      */
     public static String readLine() {
-        String line;
-        try {
-            line = scanner.nextLine();
-        }
-        catch (NoSuchElementException e) {
-            line = null;
-        }
-        return line;
+        return tokenizer.readLine();
     }
 
     /**
@@ -305,18 +288,10 @@ public final class StdIn {
      * @throws NoSuchElementException if standard input is empty
      */
     public static char readChar() {
-        try {
-            scanner.useDelimiter(EMPTY_PATTERN);
-            String ch = scanner.next();
-            assert ch.length() == 1 : "Internal (Std)In.readChar() error!"
-                + " Please contact the authors.";
-            scanner.useDelimiter(WHITESPACE_PATTERN);
-            return ch.charAt(0);
-        }
-        catch (NoSuchElementException e) {
+        if (!tokenizer.hasNextChar())
             throw new NoSuchElementException("attempts to read a 'char' value from standard input, "
                                            + "but no more tokens are available");
-        }
+        return tokenizer.readChar();
     }
 
    /**
@@ -326,13 +301,7 @@ public final class StdIn {
      * @throws NoSuchElementException if standard input is empty
      */
     public static String readAll() {
-        if (!scanner.hasNextLine())
-            return "";
-
-        String result = scanner.useDelimiter(EVERYTHING_PATTERN).next();
-        // not that important to reset delimiter, since now scanner is empty
-        scanner.useDelimiter(WHITESPACE_PATTERN); // but let's do it anyway
-        return result;
+        return tokenizer.readAll();
     }
 
 
@@ -343,13 +312,10 @@ public final class StdIn {
      * @throws NoSuchElementException if standard input is empty
      */
     public static String readString() {
-        try {
-            return scanner.next();
-        }
-        catch (NoSuchElementException e) {
+        if (!tokenizer.nextToken())
             throw new NoSuchElementException("attempts to read a 'String' value from standard input, "
                                            + "but no more tokens are available");
-        }
+        return tokenizer.token();
     }
 
    /**
@@ -360,17 +326,15 @@ public final class StdIn {
      * @throws InputMismatchException if the next token cannot be parsed as an {@code int}
      */
     public static int readInt() {
+        if (!tokenizer.nextToken())
+            throw new NoSuchElementException("attemps to read an 'int' value from standard input, "
+                                           + "but no more tokens are available");
         try {
-            return scanner.nextInt();
+            return tokenizer.tokenAsInt();
         }
-        catch (InputMismatchException e) {
-            String token = scanner.next();
+        catch (NumberFormatException e) {
             throw new InputMismatchException("attempts to read an 'int' value from standard input, "
-                                           + "but the next token is \"" + token + "\"");
-        }
-        catch (NoSuchElementException e) {
-            throw new NoSuchElementException("attemps to read an 'int' value from standard input, "
-                                           + "but no more tokens are available");
+                                           + "but the next token is \"" + tokenizer.token() + "\"");
         }
 
     }
@@ -383,17 +347,15 @@ public final class StdIn {
      * @throws InputMismatchException if the next token cannot be parsed as a {@code double}
      */
     public static double readDouble() {
+        if (!tokenizer.nextToken())
+            throw new NoSuchElementException("attempts to read a 'double' value from standard input, "
+                                           + "but no more tokens are available");
         try {
-            return scanner.nextDouble();
+            return tokenizer.tokenAsDouble();
         }
-        catch (InputMismatchException e) {
-            String token = scanner.next();
+        catch (NumberFormatException e) {
             throw new InputMismatchException("attempts to read a 'double' value from standard input, "
-                                           + "but the next token is \"" + token + "\"");
-        }
-        catch (NoSuchElementException e) {
-            throw new NoSuchElementException("attempts to read a 'double' value from standard input, "
-                                           + "but no more tokens are available");
+                                           + "but the next token is \"" + tokenizer.token() + "\"");
         }
     }
 
@@ -405,17 +367,15 @@ public final class StdIn {
      * @throws InputMismatchException if the next token cannot be parsed as a {@code float}
      */
     public static float readFloat() {
+        if (!tokenizer.nextToken())
+            throw new NoSuchElementException("attempts to read a 'float' value from standard input, "
+                                           + "but there no more tokens are available");
         try {
-            return scanner.nextFloat();
+            return tokenizer.tokenAsFloat();
         }
-        catch (InputMismatchException e) {
-            String token = scanner.next();
+        catch (NumberFormatException e) {
             throw new InputMismatchException("attempts to read a 'float' value from standard input, "
-                                           + "but the next token is \"" + token + "\"");
-        }
-        catch (NoSuchElementException e) {
-            throw new NoSuchElementException("attempts to read a 'float' value from standard input, "
-                                           + "but there no more tokens are available");
+                                           + "but the next token is \"" + tokenizer.token() + "\"");
         }
     }
 
@@ -427,17 +387,15 @@ public final class StdIn {
      * @throws InputMismatchException if the next token cannot be parsed as a {@code long}
      */
     public static long readLong() {
+        if (!tokenizer.nextToken())
+            throw new NoSuchElementException("attempts to read a 'long' value from standard input, "
+                                           + "but no more tokens are available");
         try {
-            return scanner.nextLong();
+            return tokenizer.tokenAsLong();
         }
-        catch (InputMismatchException e) {
-            String token = scanner.next();
+        catch (NumberFormatException e) {
             throw new InputMismatchException("attempts to read a 'long' value from standard input, "
-                                           + "but the next token is \"" + token + "\"");
-        }
-        catch (NoSuchElementException e) {
-            throw new NoSuchElementException("attempts to read a 'long' value from standard input, "
-                                           + "but no more tokens are available");
+                                           + "but the next token is \"" + tokenizer.token() + "\"");
         }
     }
 
@@ -449,17 +407,15 @@ public final class StdIn {
      * @throws InputMismatchException if the next token cannot be parsed as a {@code short}
      */
     public static short readShort() {
+        if (!tokenizer.nextToken())
+            throw new NoSuchElementException("attempts to read a 'short' value from standard input, "
+                                           + "but no more tokens are available");
         try {
-            return scanner.nextShort();
+            return tokenizer.tokenAsShort();
         }
-        catch (InputMismatchException e) {
-            String token = scanner.next();
+        catch (NumberFormatException e) {
             throw new InputMismatchException("attempts to read a 'short' value from standard input, "
-                                           + "but the next token is \"" + token + "\"");
-        }
-        catch (NoSuchElementException e) {
-            throw new NoSuchElementException("attempts to read a 'short' value from standard input, "
-                                           + "but no more tokens are available");
+                                           + "but the next token is \"" + tokenizer.token() + "\"");
         }
     }
 
@@ -471,17 +427,15 @@ public final class StdIn {
      * @throws InputMismatchException if the next token cannot be parsed as a {@code byte}
      */
     public static byte readByte() {
+        if (!tokenizer.nextToken())
+            throw new NoSuchElementException("attempts to read a 'byte' value from standard input, "
+                                           + "but no more tokens are available");
         try {
-            return scanner.nextByte();
+            return tokenizer.tokenAsByte();
         }
-        catch (InputMismatchException e) {
-            String token = scanner.next();
+        catch (NumberFormatException e) {
             throw new InputMismatchException("attempts to read a 'byte' value from standard input, "
-                                           + "but the next token is \"" + token + "\"");
-        }
-        catch (NoSuchElementException e) {
-            throw new NoSuchElementException("attempts to read a 'byte' value from standard input, "
-                                           + "but no more tokens are available");
+                                           + "but the next token is \"" + tokenizer.token() + "\"");
         }
     }
 
@@ -550,11 +504,13 @@ public final class StdIn {
      * @throws InputMismatchException if any token cannot be parsed as an {@code int}
      */
     public static int[] readAllInts() {
-        String[] fields = readAllStrings();
-        int[] vals = new int[fields.length];
-        for (int i = 0; i < fields.length; i++)
-            vals[i] = Integer.parseInt(fields[i]);
-        return vals;
+        int[] vals = new int[16];
+        int n = 0;
+        while (tokenizer.nextToken()) {
+            if (n == vals.length) vals = Arrays.copyOf(vals, 2 * n);
+            vals[n++] = tokenizer.tokenAsInt();
+        }
+        return Arrays.copyOf(vals, n);
     }
 
     /**
@@ -564,11 +520,13 @@ public final class StdIn {
      * @throws InputMismatchException if any token cannot be parsed as a {@code long}
      */
     public static long[] readAllLongs() {
-        String[] fields = readAllStrings();
-        long[] vals = new long[fields.length];
-        for (int i = 0; i < fields.length; i++)
-            vals[i] = Long.parseLong(fields[i]);
-        return vals;
+        long[] vals = new long[16];
+        int n = 0;
+        while (tokenizer.nextToken()) {
+            if (n == vals.length) vals = Arrays.copyOf(vals, 2 * n);
+            vals[n++] = tokenizer.tokenAsLong();
+        }
+        return Arrays.copyOf(vals, n);
     }
 
     /**
@@ -578,11 +536,37 @@ public final class StdIn {
      * @throws InputMismatchException if any token cannot be parsed as a {@code double}
      */
     public static double[] readAllDoubles() {
-        String[] fields = readAllStrings();
-        double[] vals = new double[fields.length];
-        for (int i = 0; i < fields.length; i++)
-            vals[i] = Double.parseDouble(fields[i]);
-        return vals;
+        double[] vals = new double[16];
+        int n = 0;
+        while (tokenizer.nextToken()) {
+            if (n == vals.length) vals = Arrays.copyOf(vals, 2 * n);
+            vals[n++] = tokenizer.tokenAsDouble();
+        }
+        return Arrays.copyOf(vals, n);
+    }
+
+    /**
+     * Reads integers from standard input into {@code dst}, filling it.
+     *
+     * @param  dst the destination array
+     * @throws NoSuchElementException if fewer than {@code dst.length} tokens remain
+     * @throws InputMismatchException if a token cannot be parsed as an {@code int}
+     */
+    public static void readInts(int[] dst) {
+        for (int i = 0; i < dst.length; i++)
+            dst[i] = readInt();
+    }
+
+    /**
+     * Reads doubles from standard input into {@code dst}, filling it.
+     *
+     * @param  dst the destination array
+     * @throws NoSuchElementException if fewer than {@code dst.length} tokens remain
+     * @throws InputMismatchException if a token cannot be parsed as a {@code double}
+     */
+    public static void readDoubles(double[] dst) {
+        for (int i = 0; i < dst.length; i++)
+            dst[i] = readDouble();
     }
 
     //// end: section (2 of 2) of code duplicated from In to StdIn
@@ -593,15 +577,10 @@ public final class StdIn {
     }
 
     /**
-     * If StdIn changes, use this to reinitialize the scanner.
+     * If StdIn changes, use this to reinitialize the tokenizer.
      */
     private static void resync() {
-        setScanner(new Scanner(new java.io.BufferedInputStream(System.in), CHARSET_NAME));
-    }
-
-    private static void setScanner(Scanner scanner) {
-        StdIn.scanner = scanner;
-        StdIn.scanner.useLocale(LOCALE);
+        tokenizer = new Tokenizer(System.in);
     }
 
    /**
@@ -0,0 +1,365 @@
+package aitu.edu.mst.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ *  The {@code Tokenizer} class is the byte-oriented reader behind {@link In}
+ *  and {@link StdIn}. It reads UTF-8 input through its own buffer and splits
+ *  it into whitespace-separated tokens without regular expressions.
+ *  <p>
+ *  A token is copied into a reusable byte array, and numbers are parsed
+ *  straight from those bytes, so reading an {@code int} or a typical
+ *  {@code double} creates no {@code String}. Decimals with at most 15
+ *  significant digits and a small exponent are converted exactly with one
+ *  multiplication or division by a power of ten; every other number falls
+ *  back to {@link Double#parseDouble(String)}.
+ *  <p>
+ *  Whitespace is the ASCII subset of {@link Character#isWhitespace(char)}
+ *  (space, tab, line feed, vertical tab, form feed, carriage return and
+ *  0x1C through 0x1F); lines end at \n, \r or \r\n.
+ */
+final class Tokenizer {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_FAST_DIGITS = 15;      // every such integer is exact in a double
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final InputStream in;
+    private byte[] buf = new byte[BUFFER_SIZE];
+    private int pos;                    // next unread byte
+    private int limit;                  // one past the last buffered byte
+    private boolean eof;
+    private byte[] token = new byte[64];
+    private int tokenLength;
+    private int pendingLowSurrogate = -1;   // second half of a supplementary char from readChar()
+
+    Tokenizer(InputStream in) {
+        this.in = in;
+    }
+
+    // is byte b whitespace?
+    static boolean isWhitespace(byte b) {
+        return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1C && b <= 0x1F);
+    }
+
+    // makes buf[pos + ahead] available if the input is long enough
+    private boolean available(int ahead) {
+        while (pos + ahead >= limit) {
+            if (eof) return false;
+            if (pos > 0) {
+                System.arraycopy(buf, pos, buf, 0, limit - pos);
+                limit -= pos;
+                pos = 0;
+            }
+            if (limit == buf.length) buf = Arrays.copyOf(buf, 2 * buf.length);
+            try {
+                int n = in.read(buf, limit, buf.length - limit);
+                if (n < 0) eof = true;
+                else       limit += n;
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if a token remains, without consuming anything.
+     */
+    boolean hasNextToken() {
+        for (int k = 0; available(k); k++) {
+            if (!isWhitespace(buf[pos + k])) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if any input remains, including whitespace.
+     */
+    boolean hasNextChar() {
+        return pendingLowSurrogate >= 0 || available(0);
+    }
+
+    /**
+     * Skips whitespace and reads the next token into the token buffer.
+     *
+     * @return {@code false} if there is no token left
+     */
+    boolean nextToken() {
+        while (true) {
+            if (!available(0)) return false;
+            if (!isWhitespace(buf[pos])) break;
+            pos++;
+        }
+        tokenLength = 0;
+        while (available(0)) {
+            byte b = buf[pos];
+            if (isWhitespace(b)) break;
+            if (tokenLength == token.length) token = Arrays.copyOf(token, 2 * tokenLength);
+            token[tokenLength++] = b;
+            pos++;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the last token read by {@link #nextToken()}.
+     */
+    String token() {
+        return new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the last token as a {@code long}.
+     *
+     * @throws NumberFormatException if the token is not a decimal integer in range
+     */
+    long tokenAsLong() {
+        return parseLong(token, 0, tokenLength);
+    }
+
+    /**
+     * Parses {@code b[from]} through {@code b[to - 1]} as a decimal {@code long}.
+     *
+     * @throws NumberFormatException if the bytes are not a decimal integer in range
+     */
+    static long parseLong(byte[] b, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (b[i] == '-' || b[i] == '+')) {
+            negative = b[i] == '-';
+            i++;
+        }
+        if (i == to) throw numberFormat(b, from, to);
+        // accumulate negatively so that Long.MIN_VALUE fits, as Long.parseLong does
+        long bound = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multmin = bound / 10;
+        long result = 0;
+        for (; i < to; i++) {
+            int digit = b[i] - '0';
+            if (digit < 0 || digit > 9) throw numberFormat(b, from, to);
+            if (result < multmin) throw numberFormat(b, from, to);
+            result *= 10;
+            if (result < bound + digit) throw numberFormat(b, from, to);
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parses {@code b[from]} through {@code b[to - 1]} as a decimal {@code int}.
+     *
+     * @throws NumberFormatException if the bytes are not a decimal integer in range
+     */
+    static int parseInt(byte[] b, int from, int to) {
+        long x = parseLong(b, from, to);
+        if (x < Integer.MIN_VALUE || x > Integer.MAX_VALUE) throw numberFormat(b, from, to);
+        return (int) x;
+    }
+
+    private static NumberFormatException numberFormat(byte[] b, int from, int to) {
+        return new NumberFormatException(new String(b, from, to - from, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses the last token as an {@code int}.
+     *
+     * @throws NumberFormatException if the token is not a decimal integer in range
+     */
+    int tokenAsInt() {
+        return parseInt(token, 0, tokenLength);
+    }
+
+    /**
+     * Parses the last token as a {@code short}.
+     *
+     * @throws NumberFormatException if the token is not a decimal integer in range
+     */
+    short tokenAsShort() {
+        int x = tokenAsInt();
+        if (x != (short) x) throw new NumberFormatException(token());
+        return (short) x;
+    }
+
+    /**
+     * Parses the last token as a {@code byte}.
+     *
+     * @throws NumberFormatException if the token is not a decimal integer in range
+     */
+    byte tokenAsByte() {
+        int x = tokenAsInt();
+        if (x != (byte) x) throw new NumberFormatException(token());
+        return (byte) x;
+    }
+
+    /**
+     * Parses the last token as a {@code float}.
+     *
+     * @throws NumberFormatException if the token is not a number
+     */
+    float tokenAsFloat() {
+        return Float.parseFloat(token());
+    }
+
+    /**
+     * Parses the last token as a {@code double}.
+     *
+     * @throws NumberFormatException if the token is not a number
+     */
+    double tokenAsDouble() {
+        return parseDouble(token, 0, tokenLength);
+    }
+
+    /**
+     * Parses {@code b[from]} through {@code b[to - 1]} as a {@code double},
+     * accepting everything {@link Double#parseDouble(String)} accepts.
+     *
+     * @throws NumberFormatException if the bytes are not a number
+     */
+    static double parseDouble(byte[] b, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (b[i] == '-' || b[i] == '+')) {
+            negative = b[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;         // significant digits in mantissa
+        int scale = 0;          // value = mantissa * 10^(exponent - scale)
+        boolean seenDigit = false, seenPoint = false;
+        for (; i < to; i++) {
+            byte c = b[i];
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (mantissa == 0 && c == '0') {
+                    if (seenPoint) scale++;
+                    continue;
+                }
+                if (++digits > MAX_FAST_DIGITS) return slowDouble(b, from, to);
+                mantissa = mantissa * 10 + (c - '0');
+                if (seenPoint) scale++;
+            }
+            else if (c == '.' && !seenPoint) seenPoint = true;
+            else break;
+        }
+        if (!seenDigit) return slowDouble(b, from, to);
+
+        int exponent = 0;
+        if (i < to) {
+            if (b[i] != 'e' && b[i] != 'E') return slowDouble(b, from, to);
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (b[i] == '-' || b[i] == '+')) {
+                negativeExponent = b[i] == '-';
+                i++;
+            }
+            if (i == to) return slowDouble(b, from, to);
+            for (; i < to; i++) {
+                int digit = b[i] - '0';
+                if (digit < 0 || digit > 9 || exponent > 10_000) return slowDouble(b, from, to);
+                exponent = exponent * 10 + digit;
+            }
+            if (negativeExponent) exponent = -exponent;
+        }
+
+        double value = mantissa;
+        int power = exponent - scale;
+        if (mantissa != 0) {
+            if (power < -22 || power > 22) return slowDouble(b, from, to);
+            value = power < 0 ? value / POWERS_OF_TEN[-power] : value * POWERS_OF_TEN[power];
+        }
+        return negative ? -value : value;
+    }
+
+    private static double slowDouble(byte[] b, int from, int to) {
+        return Double.parseDouble(new String(b, from, to - from, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the rest of the current line, without its line terminator.
+     *
+     * @return the line, or {@code null} if there is no more input
+     */
+    String readLine() {
+        if (!hasNextChar()) return null;
+        StringBuilder prefix = null;
+        if (pendingLowSurrogate >= 0) {
+            prefix = new StringBuilder().append((char) pendingLowSurrogate);
+            pendingLowSurrogate = -1;
+        }
+        tokenLength = 0;
+        while (available(0)) {
+            byte b = buf[pos++];
+            if (b == '\n') break;
+            if (b == '\r') {
+                if (available(0) && buf[pos] == '\n') pos++;
+                break;
+            }
+            if (tokenLength == token.length) token = Arrays.copyOf(token, 2 * tokenLength);
+            token[tokenLength++] = b;
+        }
+        return prefix == null ? token() : prefix.append(token()).toString();
+    }
+
+    /**
+     * Reads the next character, decoding UTF-8.
+     *
+     * @throws NoSuchElementException if there is no more input
+     */
+    char readChar() {
+        if (pendingLowSurrogate >= 0) {
+            char c = (char) pendingLowSurrogate;
+            pendingLowSurrogate = -1;
+            return c;
+        }
+        if (!available(0)) throw new NoSuchElementException();
+        int b = buf[pos++] & 0xFF;
+        if (b < 0x80) return (char) b;
+
+        int extra, codePoint;
+        if      (b >= 0xF0 && b < 0xF8) { extra = 3; codePoint = b & 0x07; }
+        else if (b >= 0xE0)             { extra = 2; codePoint = b & 0x0F; }
+        else if (b >= 0xC0)             { extra = 1; codePoint = b & 0x1F; }
+        else return '\uFFFD';
+        for (int k = 0; k < extra; k++) {
+            if (!available(0) || (buf[pos] & 0xC0) != 0x80) return '\uFFFD';
+            codePoint = (codePoint << 6) | (buf[pos++] & 0x3F);
+        }
+        if (codePoint > Character.MAX_CODE_POINT) return '\uFFFD';
+        if (Character.isBmpCodePoint(codePoint)) return (char) codePoint;
+        pendingLowSurrogate = Character.lowSurrogate(codePoint);
+        return Character.highSurrogate(codePoint);
+    }
+
+    /**
+     * Reads and returns the remainder of the input.
+     */
+    String readAll() {
+        StringBuilder s = new StringBuilder();
+        if (pendingLowSurrogate >= 0) {
+            s.append((char) pendingLowSurrogate);
+            pendingLowSurrogate = -1;
+        }
+        while (available(limit - pos)) { }      // buffer everything up to the end
+        s.append(new String(buf, pos, limit - pos, StandardCharsets.UTF_8));
+        pos = limit;
+        return s.toString();
+    }
+
+    void close() {
+        try {
+            in.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package aitu.edu.mst.utility;
+
+import java.util.NoSuchElementException;
+
+/**
+ *  The {@code DoubleIndexMinPQ} class represents an indexed priority queue
+ *  of primitive {@code double} keys. It has the same contract as
+ *  {@link IndexMinPQ}: the client associates each key with an integer
+ *  between {@code 0} and {@code maxN - 1} and uses that integer to
+ *  <em>insert</em>, <em>change</em>, <em>decrease</em>, <em>increase</em>
+ *  or <em>delete</em> the key.
+ *  <p>
+ *  Keys are kept in a {@code double[]} and compared with {@code <}, so
+ *  no operation boxes a key or calls {@code compareTo}. This is the queue
+ *  used by {@code PrimMST}, where <em>decrease-key</em> is the hot path.
+ *  <p>
+ *  This implementation uses a <em>d</em>-ary heap along with an array to
+ *  associate keys with integers in the given range. The arity <em>d</em> is
+ *  chosen at construction (binary by default). A wider heap is shallower, so
+ *  <em>insert</em> and <em>decrease-key</em> move a key through
+ *  log<sub><em>d</em></sub> <em>n</em> levels instead of log<sub>2</sub> <em>n</em>,
+ *  and the <em>d</em> children of a node sit next to each other in memory;
+ *  the price is <em>d</em> comparisons per level in <em>delete-the-minimum</em>.
+ *  The <em>insert</em>, <em>decrease-key</em> and <em>change-key</em> (upwards)
+ *  operations take &Theta;(log<sub><em>d</em></sub> <em>n</em>) time and
+ *  <em>delete-the-minimum</em>, <em>delete</em> and <em>increase-key</em>
+ *  take &Theta;(<em>d</em> log<sub><em>d</em></sub> <em>n</em>) time in the
+ *  worst case, where <em>n</em> is the number of elements in the priority queue.
+ *  Construction takes time proportional to the specified capacity.
+ */
+public class DoubleIndexMinPQ {
+    private final int maxN;     // maximum number of elements on PQ
+    private final int d;        // arity of the heap
+    private int n;              // number of elements on PQ
+    private final int[] pq;     // d-ary heap using 0-based indexing
+    private final int[] qp;     // inverse of pq - qp[pq[i]] = pq[qp[i]] = i
+    private final double[] keys;// keys[i] = priority of i
+
+    /**
+     * Initializes an empty binary indexed priority queue with indices between
+     * {@code 0} and {@code maxN - 1}.
+     *
+     * @param  maxN the keys on this priority queue are index from {@code 0}
+     *         {@code maxN - 1}
+     * @throws IllegalArgumentException if {@code maxN < 0}
+     */
+    public DoubleIndexMinPQ(int maxN) {
+        this(maxN, 2);
+    }
+
+    /**
+     * Initializes an empty {@code d}-ary indexed priority queue with indices
+     * between {@code 0} and {@code maxN - 1}.
+     *
+     * @param  maxN the keys on this priority queue are index from {@code 0}
+     *         {@code maxN - 1}
+     * @param  d the number of children of each heap node
+     * @throws IllegalArgumentException if {@code maxN < 0}
+     * @throws IllegalArgumentException if {@code d < 2}
+     */
+    public DoubleIndexMinPQ(int maxN, int d) {
+        if (maxN < 0) throw new IllegalArgumentException();
+        if (d < 2) throw new IllegalArgumentException("arity must be at least 2: " + d);
+        this.maxN = maxN;
+        this.d = d;
+        n = 0;
+        keys = new double[maxN];
+        pq   = new int[maxN];
+        qp   = new int[maxN];
+        for (int i = 0; i < maxN; i++)
+            qp[i] = -1;
+    }
+
+    /**
+     * Returns the arity of the underlying heap.
+     *
+     * @return the number of children of each heap node
+     */
+    public int arity() {
+        return d;
+    }
+
+    /**
+     * Returns true if this priority queue is empty.
+     *
+     * @return {@code true} if this priority queue is empty;
+     *         {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    /**
+     * Is {@code i} an index on this priority queue?
+     *
+     * @param  i an index
+     * @return {@code true} if {@code i} is an index on this priority queue;
+     *         {@code false} otherwise
+     * @throws IllegalArgumentException unless {@code 0 <= i < maxN}
+     */
+    public boolean contains(int i) {
+        validateIndex(i);
+        return qp[i] != -1;
+    }
+
+    /**
+     * Returns the number of keys on this priority queue.
+     *
+     * @return the number of keys on this priority queue
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Associates key with index {@code i}.
+     *
+     * @param  i an index
+     * @param  key the key to associate with index {@code i}
+     * @throws IllegalArgumentException unless {@code 0 <= i < maxN}
+     * @throws IllegalArgumentException if there already is an item associated
+     *         with index {@code i}
+     * @throws IllegalArgumentException if {@code key} is {@code NaN}
+     */
+    public void insert(int i, double key) {
+        validateIndex(i);
+        validateKey(key);
+        if (contains(i)) throw new IllegalArgumentException("index is already in the priority queue");
+        qp[i] = n;
+        pq[n] = i;
+        keys[i] = key;
+        swim(n++);
+    }
+
+    /**
+     * Returns an index associated with a minimum key.
+     *
+     * @return an index associated with a minimum key
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public int minIndex() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return pq[0];
+    }
+
+    /**
+     * Returns a minimum key.
+     *
+     * @return a minimum key
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public double minKey() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        return keys[pq[0]];
+    }
+
+    /**
+     * Removes a minimum key and returns its associated index.
+     *
+     * @return an index associated with a minimum key
+     * @throws NoSuchElementException if this priority queue is empty
+     */
+    public int delMin() {
+        if (n == 0) throw new NoSuchElementException("Priority queue underflow");
+        int min = pq[0];
+        if (--n > 0) {
+            pq[0] = pq[n];
+            qp[pq[0]] = 0;
+            sink(0);
+        }
+        qp[min] = -1;        // delete
+        return min;
+    }
+
+    /**
+     * Returns the key associated with index {@code i}.
+     *
+     * @param  i the index of the key to return
+     * @return the key associated with index {@code i}
+     * @throws IllegalArgumentException unless {@code 0 <= i < maxN}
+     * @throws NoSuchElementException no key is associated with index {@code i}
+     */
+    public double keyOf(int i) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        return keys[i];
+    }
+
+    /**
+     * Change the key associated with index {@code i} to the specified value.
+     *
+     * @param  i the index of the key to change
+     * @param  key change the key associated with index {@code i} to this key
+     * @throws IllegalArgumentException unless {@code 0 <= i < maxN}
+     * @throws IllegalArgumentException if {@code key} is {@code NaN}
+     * @throws NoSuchElementException no key is associated with index {@code i}
+     */
+    public void changeKey(int i, double key) {
+        validateIndex(i);
+        validateKey(key);
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        keys[i] = key;
+        swim(qp[i]);
+        sink(qp[i]);
+    }
+
+    /**
+     * Decrease the key associated with index {@code i} to the specified value.
+     *
+     * @param  i the index of the key to decrease
+     * @param  key decrease the key associated with index {@code i} to this key
+     * @throws IllegalArgumentException unless {@code 0 <= i < maxN}
+     * @throws IllegalArgumentException if {@code key >= keyOf(i)}
+     * @throws NoSuchElementException no key is associated with index {@code i}
+     */
+    public void decreaseKey(int i, double key) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        if (keys[i] == key)
+            throw new IllegalArgumentException("Calling decreaseKey() with a key equal to the key in the priority queue");
+        if (!(key < keys[i]))
+            throw new IllegalArgumentException("Calling decreaseKey() with a key strictly greater than the key in the priority queue");
+        keys[i] = key;
+        swim(qp[i]);
+    }
+
+    /**
+     * Increase the key associated with index {@code i} to the specified value.
+     *
+     * @param  i the index of the key to increase
+     * @param  key increase the key associated with index {@code i} to this key
+     * @throws IllegalArgumentException unless {@code 0 <= i < maxN}
+     * @throws IllegalArgumentException if {@code key <= keyOf(i)}
+     * @throws NoSuchElementException no key is associated with index {@code i}
+     */
+    public void increaseKey(int i, double key) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        if (keys[i] == key)
+            throw new IllegalArgumentException("Calling increaseKey() with a key equal to the key in the priority queue");
+        if (!(key > keys[i]))
+            throw new IllegalArgumentException("Calling increaseKey() with a key strictly less than the key in the priority queue");
+        keys[i] = key;
+        sink(qp[i]);
+    }
+
+    /**
+     * Remove the key associated with index {@code i}.
+     *
+     * @param  i the index of the key to remove
+     * @throws IllegalArgumentException unless {@code 0 <= i < maxN}
+     * @throws NoSuchElementException no key is associated with index {@code i}
+     */
+    public void delete(int i) {
+        validateIndex(i);
+        if (!contains(i)) throw new NoSuchElementException("index is not in the priority queue");
+        int index = qp[i];
+        if (index != --n) {
+            int moved = pq[n];
+            pq[index] = moved;
+            qp[moved] = index;
+            swim(index);
+            sink(qp[moved]);
+        }
+        qp[i] = -1;
+    }
+
+    // throw an IllegalArgumentException if i is an invalid index
+    private void validateIndex(int i) {
+        if (i < 0) throw new IllegalArgumentException("index is negative: " + i);
+        if (i >= maxN) throw new IllegalArgumentException("index >= capacity: " + i);
+    }
+
+    // throw an IllegalArgumentException if key is NaN, which would break the heap order
+    private void validateKey(double key) {
+        if (Double.isNaN(key)) throw new IllegalArgumentException("key is NaN");
+    }
+
+   /***************************************************************************
+    * Heap helper functions. Both move a "hole" instead of swapping, so each
+    * level costs one array write per index instead of a full exchange.
+    ***************************************************************************/
+    private void swim(int k) {
+        int i = pq[k];
+        double key = keys[i];
+        while (k > 0) {
+            int parent = (k - 1) / d;
+            int p = pq[parent];
+            if (!(keys[p] > key)) break;
+            pq[k] = p;
+            qp[p] = k;
+            k = parent;
+        }
+        pq[k] = i;
+        qp[i] = k;
+    }
+
+    private void sink(int k) {
+        int i = pq[k];
+        double key = keys[i];
+        while (true) {
+            long first = (long) d * k + 1;
+            if (first >= n) break;
+            int c = (int) first;
+            int last = (int) Math.min(first + d, n);
+            int best = c;
+            double bestKey = keys[pq[c]];
+            for (int j = c + 1; j < last; j++) {
+                double kj = keys[pq[j]];
+                if (kj < bestKey) {
+                    best = j;
+                    bestKey = kj;
+                }
+            }
+            if (!(bestKey < key)) break;
+            int b = pq[best];
+            pq[k] = b;
+            qp[b] = k;
+            k = best;
+        }
+        pq[k] = i;
+        qp[i] = k;
+    }
+}
@@ -0,0 +1,421 @@
+package aitu.edu.mst.utility;
+
+import java.util.Arrays;
+
+/**
+ *  The {@code EulerTourTree} class represents an unrooted forest over the
+ *  vertices {@code 0} through {@code n-1} under the <em>link</em> and
+ *  <em>cut</em> operations, keeping each tree as its Euler tour. Besides
+ *  <em>connected</em> it answers the queries that depend on a whole tree at
+ *  once: its number of vertices, some <em>marked</em> edge in it, and the
+ *  vertex of smallest value in it.
+ *  <p>
+ *  Every vertex carries a {@code double} value, {@code +Infinity} until set,
+ *  and a {@code long} key that breaks ties between equal values. Every edge
+ *  can be marked or unmarked. Edges are named by the {@code int} that
+ *  <em>link</em> returns; the name of a cut edge may be reused by a later link.
+ *  <p>
+ *  This implementation keeps each tour in a splay tree, with one node per
+ *  vertex and one per direction of every edge; a vertex gets its node the
+ *  first time it is linked or valued. The <em>link</em>, <em>cut</em>,
+ *  <em>connected</em>, <em>size</em>, <em>marked-edge</em>,
+ *  <em>min-vertex</em>, <em>set-marked</em> and <em>set-value</em> operations
+ *  take &Theta;(log <em>n</em>) amortized time. The constructor takes
+ *  &Theta;(<em>n</em>) time; the nodes are stored in parallel arrays that
+ *  double when full.
+ */
+public class EulerTourTree {
+    private static final int NONE = -1;
+
+    private final int n;            // number of vertices
+    private final int[] nodeOf;     // nodeOf[v] = node of vertex v, or NONE before v is first used
+    private int nodes;              // number of nodes ever created
+    private int[] left;             // left child in the splay tree
+    private int[] right;            // right child in the splay tree
+    private int[] parent;           // splay parent
+    private int[] owner;            // vertex of a vertex node, -1 - e for the two nodes of edge e
+    private int[] count;            // number of nodes in the splay subtree
+    private int[] vertices;         // number of vertex nodes in the splay subtree
+    private boolean[] marked;       // marked[x] = is x the first node of a marked edge?
+    private int[] marks;            // number of marked nodes in the splay subtree
+    private double[] value;         // value of a vertex node, +Infinity for edge nodes
+    private long[] key;             // tie-break key of a vertex node
+    private int[] min;              // node of smallest value in the splay subtree, or NONE if none is finite
+    private int[] freeNodes = new int[16];
+    private int freeNodeCount;
+
+    private int[] first = new int[16];  // first[e], second[e] = the two nodes of edge e, or NONE
+    private int[] second = new int[16];
+    private int edges;                  // number of edge names ever handed out
+    private int[] freeEdges = new int[16];
+    private int freeEdgeCount;
+
+    /**
+     * Initializes a forest of {@code n} single-vertex trees.
+     *
+     * @param  n the number of vertices
+     * @throws IllegalArgumentException if {@code n < 0}
+     */
+    public EulerTourTree(int n) {
+        if (n < 0) throw new IllegalArgumentException("Number of vertices must be non-negative");
+        this.n = n;
+        nodeOf = new int[n];
+        Arrays.fill(nodeOf, NONE);
+        int capacity = 16;
+        left = new int[capacity];
+        right = new int[capacity];
+        parent = new int[capacity];
+        owner = new int[capacity];
+        count = new int[capacity];
+        vertices = new int[capacity];
+        marked = new boolean[capacity];
+        marks = new int[capacity];
+        value = new double[capacity];
+        key = new long[capacity];
+        min = new int[capacity];
+    }
+
+    /**
+     * Returns the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    public int n() {
+        return n;
+    }
+
+    /**
+     * Returns true if {@code u} and {@code v} are in the same tree.
+     *
+     * @param  u one vertex
+     * @param  v the other vertex
+     * @return {@code true} if {@code u} and {@code v} are in the same tree
+     * @throws IllegalArgumentException unless both vertices are between {@code 0} and {@code n-1}
+     */
+    public boolean connected(int u, int v) {
+        validateVertex(u);
+        validateVertex(v);
+        if (u == v) return true;
+        int a = nodeOf[u], b = nodeOf[v];
+        if (a == NONE || b == NONE) return false;
+        splay(a);
+        splay(b);
+        // a is still a splay root only if b's splay tree is another one
+        return parent[a] != NONE;
+    }
+
+    /**
+     * Returns the number of vertices in the tree of {@code v}.
+     *
+     * @param  v the vertex
+     * @return the number of vertices in the tree of {@code v}
+     * @throws IllegalArgumentException unless {@code 0 <= v < n}
+     */
+    public int size(int v) {
+        validateVertex(v);
+        int a = nodeOf[v];
+        if (a == NONE) return 1;
+        splay(a);
+        return vertices[a];
+    }
+
+    /**
+     * Joins the trees of {@code u} and {@code v} with the edge {@code u-v}.
+     * The new edge is not marked.
+     *
+     * @param  u one vertex
+     * @param  v the other vertex
+     * @return the name of the new edge
+     * @throws IllegalArgumentException if {@code u} and {@code v} are already connected
+     * @throws IllegalArgumentException unless both vertices are between {@code 0} and {@code n-1}
+     */
+    public int link(int u, int v) {
+        if (connected(u, v)) throw new IllegalArgumentException("vertices " + u + " and " + v + " are already connected");
+        int e;
+        if (freeEdgeCount > 0) e = freeEdges[--freeEdgeCount];
+        else {
+            if (edges == first.length) {
+                first = Arrays.copyOf(first, 2 * edges);
+                second = Arrays.copyOf(second, 2 * edges);
+            }
+            e = edges++;
+        }
+        first[e] = newNode(-1 - e);
+        second[e] = newNode(-1 - e);
+        // the tour from u, into v's tour and back: u ... u->v v ... v->u
+        int tour = join(reroot(vertexNode(u)), first[e]);
+        tour = join(tour, reroot(vertexNode(v)));
+        join(tour, second[e]);
+        return e;
+    }
+
+    /**
+     * Removes edge {@code e}, splitting its tree in two.
+     *
+     * @param  e the edge
+     * @throws IllegalArgumentException unless {@code e} is an edge of the forest
+     */
+    public void cut(int e) {
+        validateEdge(e);
+        int p = first[e], q = second[e];
+        splay(p);
+        int i = nodeCount(left[p]);
+        splay(q);
+        if (nodeCount(left[q]) < i) {
+            int t = p;
+            p = q;
+            q = t;
+        }
+        // the tour is L p M q R; M is one tree, L R the other
+        splay(p);
+        int l = detachLeft(p);
+        splay(q);
+        int r = detachRight(q);
+        splay(p);
+        detachRight(p);
+        splay(q);
+        detachLeft(q);
+        join(l, r);
+        freeNode(p);
+        freeNode(q);
+        first[e] = second[e] = NONE;
+        if (freeEdgeCount == freeEdges.length) freeEdges = Arrays.copyOf(freeEdges, 2 * freeEdgeCount);
+        freeEdges[freeEdgeCount++] = e;
+    }
+
+    /**
+     * Marks or unmarks edge {@code e}.
+     *
+     * @param  e the edge
+     * @param  b {@code true} to mark the edge, {@code false} to unmark it
+     * @throws IllegalArgumentException unless {@code e} is an edge of the forest
+     */
+    public void setMarked(int e, boolean b) {
+        validateEdge(e);
+        int x = first[e];
+        splay(x);
+        marked[x] = b;
+        pull(x);
+    }
+
+    /**
+     * Returns a marked edge in the tree of {@code v}.
+     *
+     * @param  v the vertex
+     * @return a marked edge in the tree of {@code v}, or {@code -1} if there is none
+     * @throws IllegalArgumentException unless {@code 0 <= v < n}
+     */
+    public int markedEdge(int v) {
+        validateVertex(v);
+        int x = nodeOf[v];
+        if (x == NONE) return NONE;
+        splay(x);
+        if (marks[x] == 0) return NONE;
+        while (!marked[x]) {
+            if (left[x] != NONE && marks[left[x]] > 0) x = left[x];
+            else                                       x = right[x];
+        }
+        splay(x);
+        return -1 - owner[x];
+    }
+
+    /**
+     * Changes the value and the tie-break key of vertex {@code v}.
+     * The value {@code +Infinity} takes {@code v} out of the
+     * <em>min-vertex</em> queries.
+     *
+     * @param  v the vertex
+     * @param  x the new value
+     * @param  k the new key
+     * @throws IllegalArgumentException unless {@code 0 <= v < n}
+     */
+    public void setValue(int v, double x, long k) {
+        validateVertex(v);
+        if (nodeOf[v] == NONE && x == Double.POSITIVE_INFINITY) return;
+        int a = vertexNode(v);
+        splay(a);
+        value[a] = x;
+        key[a] = k;
+        pull(a);
+    }
+
+    /**
+     * Returns the vertex of smallest value in the tree of {@code v}; of two
+     * vertices with equal values, the one with the smaller key.
+     *
+     * @param  v the vertex
+     * @return the vertex of smallest value in the tree of {@code v}, or
+     *         {@code -1} if every value in the tree is {@code +Infinity}
+     * @throws IllegalArgumentException unless {@code 0 <= v < n}
+     */
+    public int minVertex(int v) {
+        validateVertex(v);
+        int a = nodeOf[v];
+        if (a == NONE) return NONE;
+        splay(a);
+        int m = min[a];
+        if (m == NONE) return NONE;
+        splay(m);
+        return owner[m];
+    }
+
+    private int vertexNode(int v) {
+        if (nodeOf[v] == NONE) nodeOf[v] = newNode(v);
+        return nodeOf[v];
+    }
+
+    private int newNode(int who) {
+        int x;
+        if (freeNodeCount > 0) x = freeNodes[--freeNodeCount];
+        else {
+            if (nodes == left.length) resize(2 * nodes);
+            x = nodes++;
+        }
+        left[x] = right[x] = parent[x] = NONE;
+        owner[x] = who;
+        marked[x] = false;
+        value[x] = Double.POSITIVE_INFINITY;
+        key[x] = 0;
+        pull(x);
+        return x;
+    }
+
+    private void freeNode(int x) {
+        if (freeNodeCount == freeNodes.length) freeNodes = Arrays.copyOf(freeNodes, 2 * freeNodeCount);
+        freeNodes[freeNodeCount++] = x;
+    }
+
+    private int nodeCount(int x) {
+        return x == NONE ? 0 : count[x];
+    }
+
+    // is node a smaller than node b, by value and then by key? NONE is larger than any node
+    private boolean less(int a, int b) {
+        if (a == NONE) return false;
+        if (b == NONE) return true;
+        return value[a] < value[b] || (value[a] == value[b] && key[a] < key[b]);
+    }
+
+    private void pull(int x) {
+        int l = left[x], r = right[x];
+        count[x] = 1;
+        vertices[x] = owner[x] >= 0 ? 1 : 0;
+        marks[x] = marked[x] ? 1 : 0;
+        int m = value[x] < Double.POSITIVE_INFINITY ? x : NONE;
+        if (l != NONE) {
+            count[x] += count[l];
+            vertices[x] += vertices[l];
+            marks[x] += marks[l];
+            if (less(min[l], m)) m = min[l];
+        }
+        if (r != NONE) {
+            count[x] += count[r];
+            vertices[x] += vertices[r];
+            marks[x] += marks[r];
+            if (less(min[r], m)) m = min[r];
+        }
+        min[x] = m;
+    }
+
+    private void rotate(int x) {
+        int p = parent[x];
+        int g = parent[p];
+        if (g != NONE) {
+            if (left[g] == p) left[g] = x;
+            else              right[g] = x;
+        }
+        parent[x] = g;
+        if (left[p] == x) {
+            left[p] = right[x];
+            if (right[x] != NONE) parent[right[x]] = p;
+            right[x] = p;
+        } else {
+            right[p] = left[x];
+            if (left[x] != NONE) parent[left[x]] = p;
+            left[x] = p;
+        }
+        parent[p] = x;
+        pull(p);
+    }
+
+    // rotate pulls only the node that moves down; x is pulled once, at the top
+    private void splay(int x) {
+        if (parent[x] == NONE) return;
+        while (parent[x] != NONE) {
+            int p = parent[x];
+            int g = parent[p];
+            if (g != NONE) {
+                boolean zigZig = (left[g] == p) == (left[p] == x);
+                rotate(zigZig ? p : x);
+            }
+            rotate(x);
+        }
+        pull(x);
+    }
+
+    // splits off and returns the part of the tour before splay root x
+    private int detachLeft(int x) {
+        int l = left[x];
+        if (l != NONE) {
+            parent[l] = NONE;
+            left[x] = NONE;
+            pull(x);
+        }
+        return l;
+    }
+
+    // splits off and returns the part of the tour after splay root x
+    private int detachRight(int x) {
+        int r = right[x];
+        if (r != NONE) {
+            parent[r] = NONE;
+            right[x] = NONE;
+            pull(x);
+        }
+        return r;
+    }
+
+    // concatenates the tours of splay roots a and b (either may be NONE) and returns the new root
+    private int join(int a, int b) {
+        if (a == NONE) return b;
+        if (b == NONE) return a;
+        int last = a;
+        while (right[last] != NONE) last = right[last];
+        splay(last);
+        right[last] = b;
+        parent[b] = last;
+        pull(last);
+        return last;
+    }
+
+    // rotates the tour containing x to start at x, and returns its splay root
+    private int reroot(int x) {
+        splay(x);
+        int l = detachLeft(x);
+        return join(x, l);
+    }
+
+    private void resize(int capacity) {
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        owner = Arrays.copyOf(owner, capacity);
+        count = Arrays.copyOf(count, capacity);
+        vertices = Arrays.copyOf(vertices, capacity);
+        marked = Arrays.copyOf(marked, capacity);
+        marks = Arrays.copyOf(marks, capacity);
+        value = Arrays.copyOf(value, capacity);
+        key = Arrays.copyOf(key, capacity);
+        min = Arrays.copyOf(min, capacity);
+    }
+
+    private void validateVertex(int v) {
+        if (v < 0 || v >= n)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (n-1));
+    }
+
+    private void validateEdge(int e) {
+        if (e < 0 || e >= edges || first[e] == NONE)
+            throw new IllegalArgumentException("edge " + e + " is not in the forest");
+    }
+}
@@ -0,0 +1,318 @@
+package aitu.edu.mst.utility;
+
+import java.util.Arrays;
+
+/**
+ *  The {@code LinkCutTree} class represents a forest of rooted trees over
+ *  nodes {@code 0} through {@code n-1}, each carrying a {@code double} value,
+ *  under the <em>link</em> and <em>cut</em> operations of Sleator and Tarjan.
+ *  Besides joining and splitting trees it answers <em>connected</em> and
+ *  <em>path-maximum</em> queries: which node has the largest value on the
+ *  tree path between two nodes. Each node may also carry a {@code long} key
+ *  that breaks ties: of two nodes with equal values, the one with the larger
+ *  key counts as larger. Nodes added without a key have key {@code 0}.
+ *  <p>
+ *  To keep weights on edges, as a minimum spanning forest needs, give each
+ *  tree edge a node of its own carrying the weight, link it between its two
+ *  endpoints, and give the vertex nodes the value {@code -Infinity}. The
+ *  path maximum is then the heaviest edge on the path.
+ *  <p>
+ *  This implementation keeps every preferred path in a splay tree with lazy
+ *  reversal, so that any node can be made the root of its tree. The
+ *  <em>link</em>, <em>cut</em>, <em>connected</em>, <em>path-maximum</em> and
+ *  <em>set-value</em> operations take &Theta;(log <em>n</em>) amortized time;
+ *  <em>add-node</em> takes constant amortized time. All nodes are stored in
+ *  parallel {@code int}, {@code long} and {@code double} arrays that double
+ *  when full.
+ */
+public class LinkCutTree {
+    private static final int NONE = -1;
+
+    private int n;              // number of nodes
+    private int[] left;         // left child in the splay tree
+    private int[] right;        // right child in the splay tree
+    private int[] parent;       // splay parent, or path-parent for a splay root
+    private boolean[] flip;     // children of the subtree still to be swapped
+    private double[] value;     // value[x] = value of node x
+    private long[] key;         // key[x] = tie-break key of node x
+    private int[] max;          // node of largest value in the splay subtree of x
+    private int[] stack = new int[16];
+
+    /**
+     * Initializes an empty forest with room for {@code capacity} nodes.
+     *
+     * @param  capacity the expected number of nodes
+     * @throws IllegalArgumentException if {@code capacity < 0}
+     */
+    public LinkCutTree(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("capacity must be non-negative");
+        capacity = Math.max(capacity, 1);
+        left = new int[capacity];
+        right = new int[capacity];
+        parent = new int[capacity];
+        flip = new boolean[capacity];
+        value = new double[capacity];
+        key = new long[capacity];
+        max = new int[capacity];
+    }
+
+    /**
+     * Adds a new single-node tree with the given value.
+     *
+     * @param  x the value of the node
+     * @return the new node
+     */
+    public int addNode(double x) {
+        return addNode(x, 0);
+    }
+
+    /**
+     * Adds a new single-node tree with the given value and tie-break key.
+     *
+     * @param  x the value of the node
+     * @param  k the key of the node
+     * @return the new node
+     */
+    public int addNode(double x, long k) {
+        if (n == left.length) resize(2 * n);
+        left[n] = right[n] = parent[n] = NONE;
+        flip[n] = false;
+        value[n] = x;
+        key[n] = k;
+        max[n] = n;
+        return n++;
+    }
+
+    /**
+     * Returns the number of nodes.
+     *
+     * @return the number of nodes
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Returns the value of node {@code x}.
+     *
+     * @param  x the node
+     * @return the value of node {@code x}
+     * @throws IllegalArgumentException unless {@code 0 <= x < size()}
+     */
+    public double value(int x) {
+        validate(x);
+        return value[x];
+    }
+
+    /**
+     * Changes the value of node {@code x}.
+     *
+     * @param  x the node
+     * @param  v the new value
+     * @throws IllegalArgumentException unless {@code 0 <= x < size()}
+     */
+    public void setValue(int x, double v) {
+        validate(x);
+        setValue(x, v, key[x]);
+    }
+
+    /**
+     * Changes the value and the tie-break key of node {@code x}.
+     *
+     * @param  x the node
+     * @param  v the new value
+     * @param  k the new key
+     * @throws IllegalArgumentException unless {@code 0 <= x < size()}
+     */
+    public void setValue(int x, double v, long k) {
+        validate(x);
+        access(x);
+        value[x] = v;
+        key[x] = k;
+        pull(x);
+    }
+
+    /**
+     * Returns true if {@code u} and {@code v} are in the same tree.
+     *
+     * @param  u one node
+     * @param  v the other node
+     * @return {@code true} if {@code u} and {@code v} are in the same tree
+     * @throws IllegalArgumentException unless both nodes are between {@code 0} and {@code size()-1}
+     */
+    public boolean connected(int u, int v) {
+        validate(u);
+        validate(v);
+        if (u == v) return true;
+        makeRoot(u);
+        return findRoot(v) == u;
+    }
+
+    /**
+     * Joins the trees of {@code u} and {@code v} with the edge {@code u-v}.
+     *
+     * @param  u one node
+     * @param  v the other node
+     * @throws IllegalArgumentException if {@code u} and {@code v} are already connected
+     * @throws IllegalArgumentException unless both nodes are between {@code 0} and {@code size()-1}
+     */
+    public void link(int u, int v) {
+        validate(u);
+        validate(v);
+        makeRoot(u);
+        if (findRoot(v) == u) throw new IllegalArgumentException("nodes " + u + " and " + v + " are already connected");
+        parent[u] = v;
+    }
+
+    /**
+     * Removes the edge {@code u-v}, splitting its tree in two.
+     *
+     * @param  u one node
+     * @param  v the other node
+     * @throws IllegalArgumentException if there is no edge {@code u-v}
+     * @throws IllegalArgumentException unless both nodes are between {@code 0} and {@code size()-1}
+     */
+    public void cut(int u, int v) {
+        validate(u);
+        validate(v);
+        makeRoot(u);
+        access(v);
+        // u-v is an edge iff the path from u to v is exactly u, v
+        if (left[v] != u) throw new IllegalArgumentException("no edge between " + u + " and " + v);
+        push(u);
+        if (right[u] != NONE) throw new IllegalArgumentException("no edge between " + u + " and " + v);
+        left[v] = NONE;
+        parent[u] = NONE;
+        pull(v);
+    }
+
+    /**
+     * Returns the node of largest value on the tree path from {@code u} to
+     * {@code v}, both included.
+     *
+     * @param  u one end of the path
+     * @param  v the other end of the path
+     * @return the node of largest value on the path, ties broken by the larger key
+     * @throws IllegalArgumentException if {@code u} and {@code v} are not connected
+     * @throws IllegalArgumentException unless both nodes are between {@code 0} and {@code size()-1}
+     */
+    public int pathMax(int u, int v) {
+        if (!connected(u, v)) throw new IllegalArgumentException("nodes " + u + " and " + v + " are not connected");
+        access(v);      // u is the root, so v's splay tree is exactly the path
+        return max[v];
+    }
+
+    private boolean isSplayRoot(int x) {
+        int p = parent[x];
+        return p == NONE || (left[p] != x && right[p] != x);
+    }
+
+    private void push(int x) {
+        if (!flip[x]) return;
+        int t = left[x];
+        left[x] = right[x];
+        right[x] = t;
+        if (left[x] != NONE)  flip[left[x]] ^= true;
+        if (right[x] != NONE) flip[right[x]] ^= true;
+        flip[x] = false;
+    }
+
+    private void pull(int x) {
+        int m = x;
+        if (left[x] != NONE && greater(max[left[x]], m))   m = max[left[x]];
+        if (right[x] != NONE && greater(max[right[x]], m)) m = max[right[x]];
+        max[x] = m;
+    }
+
+    // is node a larger than node b, by value and then by key?
+    private boolean greater(int a, int b) {
+        return value[a] > value[b] || (value[a] == value[b] && key[a] > key[b]);
+    }
+
+    private void rotate(int x) {
+        int p = parent[x];
+        int g = parent[p];
+        if (!isSplayRoot(p)) {
+            if (left[g] == p) left[g] = x;
+            else              right[g] = x;
+        }
+        parent[x] = g;
+        if (left[p] == x) {
+            left[p] = right[x];
+            if (right[x] != NONE) parent[right[x]] = p;
+            right[x] = p;
+        } else {
+            right[p] = left[x];
+            if (left[x] != NONE) parent[left[x]] = p;
+            left[x] = p;
+        }
+        parent[p] = x;
+        pull(p);
+        pull(x);
+    }
+
+    private void splay(int x) {
+        // push pending reversals from the splay root down to x
+        int top = 0;
+        for (int y = x; ; y = parent[y]) {
+            if (top == stack.length) stack = Arrays.copyOf(stack, 2 * top);
+            stack[top++] = y;
+            if (isSplayRoot(y)) break;
+        }
+        while (top > 0) push(stack[--top]);
+
+        while (!isSplayRoot(x)) {
+            int p = parent[x];
+            if (!isSplayRoot(p)) {
+                int g = parent[p];
+                boolean zigZig = (left[g] == p) == (left[p] == x);
+                rotate(zigZig ? p : x);
+            }
+            rotate(x);
+        }
+    }
+
+    // make the root-to-x path preferred, with x at the root of its splay tree
+    private void access(int x) {
+        int last = NONE;
+        for (int y = x; y != NONE; y = parent[y]) {
+            splay(y);
+            right[y] = last;
+            pull(y);
+            last = y;
+        }
+        splay(x);
+    }
+
+    private void makeRoot(int x) {
+        access(x);
+        flip[x] ^= true;
+    }
+
+    private int findRoot(int x) {
+        access(x);
+        int r = x;
+        push(r);
+        while (left[r] != NONE) {
+            r = left[r];
+            push(r);
+        }
+        splay(r);
+        return r;
+    }
+
+    private void resize(int capacity) {
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        flip = Arrays.copyOf(flip, capacity);
+        value = Arrays.copyOf(value, capacity);
+        key = Arrays.copyOf(key, capacity);
+        max = Arrays.copyOf(max, capacity);
+    }
+
+    private void validate(int x) {
+        if (x < 0 || x >= n)
+            throw new IllegalArgumentException("node " + x + " is not between 0 and " + (n-1));
+    }
+}
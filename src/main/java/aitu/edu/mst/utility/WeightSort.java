@@ -0,0 +1,324 @@
+package aitu.edu.mst.utility;
+
+import java.util.Arrays;
+
+/**
+ *  The {@code WeightSort} class orders edges that are stored in primitive
+ *  arrays. Instead of sorting {@code Edge} objects through
+ *  {@code compareTo}, it returns a permutation of edge indices sorted by
+ *  ascending weight, so callers can keep their edges in {@code int[]} and
+ *  {@code double[]} columns.
+ *  <p>
+ *  All sorts are stable: edges of equal weight keep their original relative
+ *  order, which is the same tie-breaking {@code Collections.sort} gives on a
+ *  list of edges.
+ *  <p>
+ *  {@link #parallelOrder(double[], int)} packs each weight and its index into
+ *  a single {@code long} so the whole sort runs on primitive keys through
+ *  {@code Arrays.parallelSort}, with no comparator and no per-comparison objects.
+ *  {@link #radixOrder(double[], int)} sorts integer and fixed-precision weights
+ *  in linear time with a counting or LSD radix sort.
+ */
+public final class WeightSort {
+    private static final int CUTOFF = 16;           // cutoff to insertion sort
+    private static final int MAX_DECIMALS = 6;      // largest fixed-point precision radixOrder detects
+    private static final double MAX_EXACT = 0x1p53; // larger scaled weights are not exact integers
+    private static final int RADIX_BITS = 11;       // bits per LSD pass
+    private static final int COUNTING_RANGE = 1 << 16;  // ranges up to this use a single counting pass
+
+    private WeightSort() { }
+
+    /**
+     * Returns the indices {@code 0} through {@code n-1} sorted by ascending
+     * {@code weights[i]}. Takes time proportional to <em>n</em> log <em>n</em>.
+     *
+     * @param  weights the edge weights
+     * @param  n the number of edges to sort (a prefix of {@code weights})
+     * @return a stable ascending-weight permutation of {@code 0 .. n-1}
+     * @throws IllegalArgumentException unless {@code 0 <= n <= weights.length}
+     */
+    public static int[] order(double[] weights, int n) {
+        if (n < 0 || n > weights.length)
+            throw new IllegalArgumentException("n is not between 0 and " + weights.length + ": " + n);
+        int[] index = new int[n];
+        for (int i = 0; i < n; i++) index[i] = i;
+        int[] aux = new int[n];
+        sort(weights, index, aux, 0, n - 1);
+        return index;
+    }
+
+    /**
+     * Returns the indices {@code 0} through {@code n-1} sorted by ascending
+     * {@code weights[i]}. A {@code float} weight and an index fit in one
+     * {@code long} without loss, so the keys are sorted exactly with
+     * {@code Arrays.parallelSort} and need no repair pass.
+     *
+     * @param  weights the edge weights
+     * @param  n the number of edges to sort (a prefix of {@code weights})
+     * @return a stable ascending-weight permutation of {@code 0 .. n-1}
+     * @throws IllegalArgumentException unless {@code 0 <= n <= weights.length}
+     */
+    public static int[] order(float[] weights, int n) {
+        if (n < 0 || n > weights.length)
+            throw new IllegalArgumentException("n is not between 0 and " + weights.length + ": " + n);
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) keys[i] = ((long) sortableBits(weights[i]) << 32) | i;
+        Arrays.parallelSort(keys);
+        int[] index = new int[n];
+        for (int i = 0; i < n; i++) index[i] = (int) keys[i];
+        return index;
+    }
+
+    /**
+     * Returns the same permutation as {@link #order(double[], int)}, computed
+     * with {@code Arrays.parallelSort} on packed {@code long} keys.
+     * <p>
+     * Each key holds the order-preserving bit pattern of the weight in its high
+     * bits and the edge index in its low <em>k</em> = &lceil;log<sub>2</sub> <em>n</em>&rceil;
+     * bits. Dropping the lowest <em>k</em> weight bits can only merge weights
+     * that differ in their last few mantissa bits (never integer weights of
+     * moderate size, but all of them when large weights are tightly clustered);
+     * every such run is put back in exact order with the stable mergesort, so
+     * the worst case stays <em>n</em> log <em>n</em>.
+     *
+     * @param  weights the edge weights
+     * @param  n the number of edges to sort (a prefix of {@code weights})
+     * @return a stable ascending-weight permutation of {@code 0 .. n-1}
+     * @throws IllegalArgumentException unless {@code 0 <= n <= weights.length}
+     */
+    public static int[] parallelOrder(double[] weights, int n) {
+        if (n < 0 || n > weights.length)
+            throw new IllegalArgumentException("n is not between 0 and " + weights.length + ": " + n);
+        int k = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(n - 1, 1)));
+        long low = (1L << k) - 1;
+        long high = ~low;
+
+        long[] keys = new long[n];
+        Arrays.parallelSetAll(keys, i -> (sortableBits(weights[i]) & high) | i);
+        Arrays.parallelSort(keys);
+
+        int[] index = new int[n];
+        for (int i = 0; i < n; i++) index[i] = (int) (keys[i] & low);
+
+        // repair runs whose weights only differ below the index bits
+        int runStart = 0;
+        for (int i = 1; i <= n; i++) {
+            if (i == n || (keys[i] & high) != (keys[runStart] & high)) {
+                if (i - runStart > 1) sort(index, runStart, i, weights);
+                runStart = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the same permutation as {@link #order(double[], int)} in linear
+     * time when every weight is an integer or has at most six decimal places
+     * (for example {@code 94.0} or {@code 0.37}), which covers all of our
+     * datasets. The weights are scaled to {@code long} keys and ordered with a
+     * single counting pass when the key range is small, or with an LSD radix
+     * sort of {@value #RADIX_BITS}-bit digits otherwise. Any other weights fall
+     * back to {@link #order(double[], int)}.
+     *
+     * @param  weights the edge weights
+     * @param  n the number of edges to sort (a prefix of {@code weights})
+     * @return a stable ascending-weight permutation of {@code 0 .. n-1}
+     * @throws IllegalArgumentException unless {@code 0 <= n <= weights.length}
+     */
+    public static int[] radixOrder(double[] weights, int n) {
+        if (n < 0 || n > weights.length)
+            throw new IllegalArgumentException("n is not between 0 and " + weights.length + ": " + n);
+        double scale = fixedPointScale(weights, n);
+        if (scale == 0 || n < 2) return order(weights, n);
+
+        long[] keys = new long[n];
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            long key = Math.round(weights[i] * scale);
+            keys[i] = key;
+            if (key < min) min = key;
+            if (key > max) max = key;
+        }
+        for (int i = 0; i < n; i++) keys[i] -= min;
+        long range = max - min;
+
+        int[] index = range < Math.max(COUNTING_RANGE, n)
+                ? countingSort(keys, (int) range + 1)
+                : radixSort(keys, 64 - Long.numberOfLeadingZeros(range));
+
+        // scaling tolerates tiny representation errors (0.07 * 100 = 7.000000000000001);
+        // the round-trip check makes equal keys mean equal weights, but repair any run anyway
+        int runStart = 0;
+        for (int i = 1; i <= n; i++) {
+            if (i == n || keys[index[i]] != keys[index[runStart]]) {
+                if (i - runStart > 1) sort(index, runStart, i, weights);
+                runStart = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the smallest power of ten, up to 10<sup>{@value #MAX_DECIMALS}</sup>,
+     * that scales every weight to an integer below 2<sup>53</sup> that divides
+     * back to exactly the same {@code double}, or {@code 0} if there is none;
+     * {@link #radixOrder(double[], int)} falls back to a comparison sort then.
+     *
+     * @param  weights the edge weights
+     * @param  n the number of weights to check (a prefix of {@code weights})
+     * @return the fixed-point scale of the weights, or {@code 0}
+     */
+    public static double fixedPointScale(double[] weights, int n) {
+        double scale = 1;
+        for (int p = 0; p <= MAX_DECIMALS; p++, scale *= 10) {
+            boolean integral = true;
+            for (int i = 0; i < n && integral; i++) {
+                // exact round trip: the scaled integer must give back the very same double,
+                // so distinct weights never share a key
+                double x = weights[i] * scale;
+                if (!(Math.abs(x) < MAX_EXACT) || Math.rint(x) / scale != weights[i])
+                    integral = false;
+            }
+            if (integral) return scale;
+        }
+        return 0;
+    }
+
+    // stable counting sort of 0 .. n-1 by keys in [0, range)
+    private static int[] countingSort(long[] keys, int range) {
+        int n = keys.length;
+        int[] count = new int[range + 1];
+        for (int i = 0; i < n; i++) count[(int) keys[i] + 1]++;
+        for (int r = 0; r < range; r++) count[r + 1] += count[r];
+        int[] index = new int[n];
+        for (int i = 0; i < n; i++) index[count[(int) keys[i]]++] = i;
+        return index;
+    }
+
+    // stable LSD radix sort of 0 .. n-1 by non-negative keys of the given bit length
+    private static int[] radixSort(long[] keys, int bits) {
+        int n = keys.length;
+        int radix = 1 << RADIX_BITS;
+        int mask = radix - 1;
+        int[] index = new int[n], auxIndex = new int[n];
+        long[] k = keys.clone(), auxKeys = new long[n];
+        for (int i = 0; i < n; i++) index[i] = i;
+        int[] count = new int[radix + 1];
+        for (int shift = 0; shift < bits; shift += RADIX_BITS) {
+            Arrays.fill(count, 0);
+            for (int i = 0; i < n; i++) count[(int) (k[i] >>> shift & mask) + 1]++;
+            for (int r = 0; r < radix; r++) count[r + 1] += count[r];
+            for (int i = 0; i < n; i++) {
+                int pos = count[(int) (k[i] >>> shift & mask)]++;
+                auxIndex[pos] = index[i];
+                auxKeys[pos] = k[i];
+            }
+            int[] ti = index; index = auxIndex; auxIndex = ti;
+            long[] tk = k; k = auxKeys; auxKeys = tk;
+        }
+        return index;
+    }
+
+    /**
+     * Maps a {@code double} to a {@code long} whose signed order matches
+     * {@link Double#compare(double, double)}.
+     *
+     * @param  x the value
+     * @return an order-preserving bit pattern of {@code x}
+     */
+    public static long sortableBits(double x) {
+        long bits = Double.doubleToLongBits(x);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * Sorts the edge indices {@code index[lo .. hi-1]} in place by ascending
+     * {@code weights[index[i]]}. The sort is stable.
+     *
+     * @param  index the edge indices
+     * @param  lo the first position to sort
+     * @param  hi one past the last position to sort
+     * @param  weights the edge weights
+     * @throws IllegalArgumentException unless {@code 0 <= lo <= hi <= index.length}
+     */
+    public static void sort(int[] index, int lo, int hi, double[] weights) {
+        if (lo < 0 || lo > hi || hi > index.length)
+            throw new IllegalArgumentException("invalid range [" + lo + ", " + hi + ")");
+        int n = hi - lo;
+        if (n < 2) return;
+        if (n <= CUTOFF) {
+            insertionSort(weights, index, lo, hi - 1);
+            return;
+        }
+        int[] part = Arrays.copyOfRange(index, lo, hi);
+        sort(weights, part, new int[n], 0, n - 1);
+        System.arraycopy(part, 0, index, lo, n);
+    }
+
+    /**
+     * Sorts {@code index[lo]} through {@code index[hi-1]} by ascending
+     * {@code weights[index[i]]}. The sort is stable. Each weight is packed
+     * with its position in the range into one {@code long} key, as in
+     * {@link #order(float[], int)}, so the keys sort exactly.
+     *
+     * @param  index the edge indices
+     * @param  lo the first position to sort
+     * @param  hi one past the last position to sort
+     * @param  weights the edge weights
+     * @throws IllegalArgumentException unless {@code 0 <= lo <= hi <= index.length}
+     */
+    public static void sort(int[] index, int lo, int hi, float[] weights) {
+        if (lo < 0 || lo > hi || hi > index.length)
+            throw new IllegalArgumentException("invalid range [" + lo + ", " + hi + ")");
+        int n = hi - lo;
+        if (n < 2) return;
+        long[] keys = new long[n];
+        for (int k = 0; k < n; k++) keys[k] = ((long) sortableBits(weights[index[lo + k]]) << 32) | k;
+        Arrays.sort(keys);
+        int[] part = Arrays.copyOfRange(index, lo, hi);
+        for (int k = 0; k < n; k++) index[lo + k] = part[(int) keys[k]];
+    }
+
+    // bits of x whose signed int order is the order of < (with -0.0 tied to 0.0)
+    private static int sortableBits(float x) {
+        int bits = Float.floatToIntBits(x + 0.0f);
+        return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+    }
+
+    // stable top-down mergesort of index[lo..hi] keyed by weights
+    private static void sort(double[] weights, int[] index, int[] aux, int lo, int hi) {
+        if (hi <= lo + CUTOFF) {
+            insertionSort(weights, index, lo, hi);
+            return;
+        }
+        int mid = lo + (hi - lo) / 2;
+        sort(weights, index, aux, lo, mid);
+        sort(weights, index, aux, mid + 1, hi);
+        if (!(weights[index[mid + 1]] < weights[index[mid]])) return;   // already in order
+        merge(weights, index, aux, lo, mid, hi);
+    }
+
+    private static void merge(double[] weights, int[] index, int[] aux, int lo, int mid, int hi) {
+        System.arraycopy(index, lo, aux, lo, hi - lo + 1);
+        int i = lo, j = mid + 1;
+        for (int k = lo; k <= hi; k++) {
+            if      (i > mid)                                 index[k] = aux[j++];
+            else if (j > hi)                                  index[k] = aux[i++];
+            else if (weights[aux[j]] < weights[aux[i]])       index[k] = aux[j++];
+            else                                              index[k] = aux[i++];
+        }
+    }
+
+    private static void insertionSort(double[] weights, int[] index, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            int x = index[i];
+            double key = weights[x];
+            int j = i;
+            while (j > lo && key < weights[index[j - 1]]) {
+                index[j] = index[j - 1];
+                j--;
+            }
+            index[j] = x;
+        }
+    }
+}
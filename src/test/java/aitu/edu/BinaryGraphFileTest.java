@@ -0,0 +1,68 @@
+package aitu.edu;
+
+import aitu.edu.mst.BoruvkaMST;
+import aitu.edu.mst.KruskalMST;
+import aitu.edu.mst.PrimMST;
+import aitu.edu.mst.core.CSRGraph;
+import aitu.edu.mst.core.Edge;
+import aitu.edu.mst.core.EdgeWeightedGraph;
+import aitu.edu.mst.io.BinaryGraphFile;
+import aitu.edu.mst.io.MappedGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryGraphFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testMappedGraphMatchesCSR() throws IOException {
+        EdgeWeightedGraph G = new EdgeWeightedGraph(500, 4000);
+        G.addEdge(new Edge(7, 7, 0.25));    // self-loop
+        Path file = dir.resolve("graph.bin");
+        BinaryGraphFile.write(G, file);
+
+        CSRGraph csr = new CSRGraph(G);
+        MappedGraph mapped = BinaryGraphFile.map(file);
+        assertEquals(csr.V(), mapped.V());
+        assertEquals(csr.E(), mapped.E());
+        for (int v = 0; v < csr.V(); v++) {
+            assertEquals(csr.begin(v), mapped.begin(v));
+            assertEquals(csr.end(v), mapped.end(v));
+            for (int i = csr.begin(v); i < csr.end(v); i++) {
+                assertEquals(csr.target(i), mapped.target(i));
+                assertEquals(csr.weight(i), mapped.weight(i));
+            }
+        }
+
+        double expected = KruskalMST.run(G).totalWeight;
+        PrimMST.MSTResult prim = PrimMST.run(mapped);
+        KruskalMST.MSTResult kruskal = KruskalMST.run(mapped);
+        BoruvkaMST.MSTResult boruvka = BoruvkaMST.run(mapped);
+
+        System.out.println("[Mapped] Prim totalWeight=" + prim.totalWeight + ", timeMs=" + prim.executionTimeMs);
+        System.out.println("[Mapped] Kruskal totalWeight=" + kruskal.totalWeight + ", timeMs=" + kruskal.executionTimeMs);
+
+        assertEquals(expected, prim.totalWeight, 1e-9, "Prim over the mapped file should match");
+        assertEquals(expected, kruskal.totalWeight, 1e-9, "Kruskal over the mapped file should match");
+        assertEquals(expected, boruvka.totalWeight, 1e-9, "Boruvka over the mapped file should match");
+    }
+
+    @Test
+    public void testRejectsForeignFile() throws IOException {
+        Path file = dir.resolve("not-a-graph.bin");
+        Files.write(file, new byte[64]);
+        assertThrows(IllegalArgumentException.class, () -> BinaryGraphFile.map(file));
+
+        Path empty = dir.resolve("empty.bin");
+        BinaryGraphFile.write(new EdgeWeightedGraph(0), empty);
+        assertEquals(0, BinaryGraphFile.map(empty).V());
+    }
+}
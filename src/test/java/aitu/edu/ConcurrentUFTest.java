@@ -0,0 +1,83 @@
+package aitu.edu;
+
+import aitu.edu.mst.core.ConcurrentUF;
+import aitu.edu.mst.core.UF;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentUFTest {
+
+    @Test
+    public void testConcurrentUnionsMatchSequentialUF() throws Exception {
+        int n = 200_000;
+        int threads = 16;
+        int unionsPerThread = 12_000;
+
+        int[][] pairs = new int[threads * unionsPerThread][2];
+        Random rnd = new Random(2025);
+        for (int[] pair : pairs) {
+            pair[0] = rnd.nextInt(n);
+            pair[1] = rnd.nextInt(n);
+        }
+
+        UF expected = new UF(n);
+        for (int[] pair : pairs) expected.union(pair[0], pair[1]);
+
+        ConcurrentUF uf = new ConcurrentUF(n);
+        AtomicInteger merges = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t * unionsPerThread;
+                futures.add(pool.submit(() -> {
+                    go.await();
+                    for (int i = first; i < first + unionsPerThread; i++) {
+                        if (uf.union(pairs[i][0], pairs[i][1])) merges.incrementAndGet();
+                        // interleave finds so path splitting races with linking
+                        uf.find(pairs[i][0]);
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        System.out.println("[ConcurrentUF] components=" + uf.count() + ", merges=" + merges.get());
+
+        assertEquals(expected.count(), uf.count(), "Component count should match sequential UF");
+        assertEquals(n - expected.count(), merges.get(), "Exactly one union should win per merge");
+        for (int i = 0; i < n; i++) {
+            int j = (int) ((i * 7919L) % n);
+            assertEquals(expected.find(i) == expected.find(j), uf.connected(i, j),
+                    "Connectivity of " + i + " and " + j + " should match sequential UF");
+        }
+    }
+
+    @Test
+    public void testUnionReportsMerge() {
+        ConcurrentUF uf = new ConcurrentUF(4);
+        assertTrue(uf.union(0, 1));
+        assertFalse(uf.union(1, 0));
+        assertTrue(uf.union(2, 3));
+        assertFalse(uf.connected(0, 3));
+        assertTrue(uf.union(0, 3));
+        assertTrue(uf.connected(1, 2));
+        assertEquals(1, uf.count());
+    }
+}
@@ -0,0 +1,66 @@
+package aitu.edu;
+
+import aitu.edu.mst.core.CSRGraph;
+import aitu.edu.mst.core.EdgeWeightedGraph;
+import aitu.edu.mst.io.EdgeListFile;
+import aitu.edu.mst.io.In;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EdgeListFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testParallelLoadMatchesIn() throws IOException {
+        Random random = new Random(7);
+        int V = 300, E = 5000;
+        StringBuilder text = new StringBuilder().append(V).append("\r\n").append(E).append('\n');
+        for (int i = 0; i < E; i++) {
+            if (i % 97 == 0) text.append("\n  \t\n");      // blank lines are skipped
+            text.append(String.format(Locale.US, "%d %d %.6f%s", random.nextInt(V), random.nextInt(V),
+                    random.nextDouble() - 0.25, i % 3 == 0 ? "\r\n" : "\n"));
+        }
+        Path file = dir.resolve("graph.txt");
+        Files.writeString(file, text);
+
+        CSRGraph expected = new CSRGraph(new EdgeWeightedGraph(new In(file.toFile())));
+        for (int chunkBytes : new int[] { 1, 13, 4096, 1 << 24 }) {
+            CSRGraph G = EdgeListFile.read(file, chunkBytes);
+            assertEquals(expected.V(), G.V());
+            assertEquals(expected.E(), G.E());
+            for (int v = 0; v < V; v++) {
+                assertEquals(expected.begin(v), G.begin(v));
+                assertEquals(expected.end(v), G.end(v));
+            }
+            for (int i = 0; i < 2 * E; i++) {
+                assertEquals(expected.target(i), G.target(i));
+                assertEquals(expected.weight(i), G.weight(i));
+            }
+        }
+    }
+
+    @Test
+    public void testMalformedInputRejected() throws IOException {
+        Path file = dir.resolve("bad.txt");
+        Files.writeString(file, "3\n2\n0 1 0.5\n");
+        assertThrows(IllegalArgumentException.class, () -> EdgeListFile.read(file));
+        Files.writeString(file, "3\n1\n0 1\n");
+        assertThrows(IllegalArgumentException.class, () -> EdgeListFile.read(file));
+        Files.writeString(file, "3\n1\n0 3 1.0\n");
+        assertThrows(IllegalArgumentException.class, () -> EdgeListFile.read(file));
+        Files.writeString(file, "3\n1\n0 1 x\n");
+        assertThrows(IllegalArgumentException.class, () -> EdgeListFile.read(file));
+        Files.writeString(file, "3\n0\n");
+        assertEquals(0, EdgeListFile.read(file).E());
+    }
+}
@@ -0,0 +1,74 @@
+package aitu.edu;
+
+import aitu.edu.mst.core.Edge;
+import aitu.edu.mst.core.EdgeWeightedGraph;
+import aitu.edu.mst.io.In;
+import org.junit.jupiter.api.Test;
+
+import java.util.InputMismatchException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InTest {
+
+    private static In in(String s) {
+        return new In(new Scanner(s));
+    }
+
+    @Test
+    public void testNumbersMatchScanner() {
+        String text = "0 -0 7 -12 2147483647 -2147483648 9223372036854775807 -9223372036854775808\n"
+                + "0.07 -0.0 1e5 2.5E-3 .5 5. 123456789012345678 0.1234567890123456789 1e400 1e-400 +3.25 Infinity NaN\n";
+        Scanner expected = new Scanner(text).useLocale(Locale.US);
+        In actual = in(text);
+        for (int i = 0; i < 6; i++) assertEquals(expected.nextInt(), actual.readInt());
+        for (int i = 0; i < 2; i++) assertEquals(expected.nextLong(), actual.readLong());
+        while (expected.hasNext()) {
+            double want = Double.parseDouble(expected.next());
+            assertEquals(Double.doubleToLongBits(want), Double.doubleToLongBits(actual.readDouble()));
+        }
+        assertTrue(actual.isEmpty());
+    }
+
+    @Test
+    public void testErrorsAndLines() {
+        In in = in("2147483648 x\r\nsecond line é\nthird");
+        assertThrows(InputMismatchException.class, in::readInt);
+        assertThrows(InputMismatchException.class, in::readDouble);
+        assertEquals("", in.readLine());
+        assertEquals("second line é", in.readLine());
+        assertEquals('t', in.readChar());
+        assertEquals("hird", in.readString());
+        assertTrue(in.isEmpty());
+        assertThrows(NoSuchElementException.class, in::readInt);
+    }
+
+    @Test
+    public void testBulkReaders() {
+        In in = in("1 2 3 4 5\n0.5 -1.5 2e3");
+        int[] ints = new int[7];
+        in.readInts(ints, 1, 5);
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4, 5, 0 }, ints);
+        double[] doubles = new double[3];
+        in.readDoubles(doubles);
+        assertArrayEquals(new double[] { 0.5, -1.5, 2000.0 }, doubles);
+        assertThrows(IndexOutOfBoundsException.class, () -> in.readInts(ints, 5, 3));
+        assertArrayEquals(new int[] { 4, -2 }, in("4\n-2\n").readAllInts());
+    }
+
+    @Test
+    public void testGraphFromIn() {
+        EdgeWeightedGraph G = new EdgeWeightedGraph(in("4\n5\n0 1 0.35\n1 2 0.07\n2 3 1e-2\n3 0 -0.5\n0 2 17\n"));
+        assertEquals(4, G.V());
+        assertEquals(5, G.E());
+        Iterator<Edge> it = G.adj(0).iterator();
+        Edge e = it.next();
+        assertEquals(17.0, e.weight());
+        assertEquals(2, e.other(0));
+        assertEquals(-0.5, it.next().weight());
+    }
+}
@@ -1,11 +1,22 @@
 package aitu.edu;
 
 import aitu.edu.mst.*;
+import aitu.edu.mst.core.AdjMatrixEdgeWeightedGraph;
+import aitu.edu.mst.core.CSRGraph;
 import aitu.edu.mst.core.Edge;
+import aitu.edu.mst.core.EdgeList;
 import aitu.edu.mst.core.EdgeWeightedGraph;
+import aitu.edu.mst.core.OffHeapGraph;
 import aitu.edu.mst.core.UF;
+import aitu.edu.mst.utility.WeightSort;
+import aitu.edu.visual.MSTStepListener;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -109,6 +120,21 @@ public class MSTTest {
         for (Edge e : prim.edges) ufPrim.union(e.either(), e.other(e.either()));
         assertTrue(ufPrim.count() > 1, "Prim result should reflect disconnected components");
 
+        // Prim restarts in every component and returns the whole minimum spanning forest
+        assertEquals(2, prim.componentCount, "Prim should report both components");
+        assertEquals(V - prim.componentCount, prim.edges.size(), "A spanning forest has V minus components edges");
+        assertEquals(ufPrim.count(), prim.componentCount);
+        assertEquals(kruskal.totalWeight, prim.totalWeight, 1e-9, "Prim forest weight should match Kruskal");
+
+        PrimMST.MSTResult csr = PrimMST.run(new CSRGraph(G));
+        PrimMST.MSTResult matrix = PrimMST.run(new AdjMatrixEdgeWeightedGraph(G));
+        PrimMST.MSTResult parallel = PrimMST.runParallel(G);
+        for (PrimMST.MSTResult r : List.of(csr, matrix, parallel)) {
+            assertEquals(prim.componentCount, r.componentCount);
+            assertEquals(prim.edges.size(), r.edges.size());
+            assertEquals(prim.totalWeight, r.totalWeight, 1e-9);
+        }
+
         UF ufKrus = new UF(V);
         for (Edge e : kruskal.edges) ufKrus.union(e.either(), e.other(e.either()));
         assertTrue(ufKrus.count() > 1, "Kruskal result should reflect disconnected components");
@@ -164,4 +190,600 @@ public class MSTTest {
         assertTrue(prim.operationsCount < 10000, "Prim operations count within expected bound for tiny graph");
         assertTrue(kruskal.operationsCount < 10000, "Kruskal operations count within expected bound for tiny graph");
     }
+
+    @Test
+    public void testCSRGraphMatchesAdjacencyLists() {
+        EdgeWeightedGraph G = buildSampleGraph();
+        CSRGraph fromGraph = new CSRGraph(G);
+
+        CSRGraph.Builder builder = new CSRGraph.Builder(G.V());
+        builder.addEdge(0,1,4).addEdge(0,2,3).addEdge(1,2,2).addEdge(1,3,5)
+               .addEdge(2,3,7).addEdge(2,4,8).addEdge(3,4,6);
+        CSRGraph built = builder.build();
+
+        assertEquals(G.E(), fromGraph.E());
+        assertEquals(G.E(), built.E());
+        for (int v = 0; v < G.V(); v++) {
+            assertEquals(G.degree(v), built.degree(v), "Builder degree of " + v);
+            int i = built.begin(v);
+            for (Edge e : G.adj(v)) {
+                assertEquals(e.other(v), built.target(i), "Builder keeps adjacency order of " + v);
+                assertEquals(e.weight(), built.weight(i), 1e-9);
+                i++;
+            }
+        }
+
+        PrimMST.MSTResult prim = PrimMST.run(G);
+        PrimMST.MSTResult primCsr = PrimMST.run(fromGraph);
+        KruskalMST.MSTResult kruskalCsr = KruskalMST.run(built);
+
+        System.out.println("[CSR] Prim totalWeight=" + primCsr.totalWeight + ", ops=" + primCsr.operationsCount + ", timeMs=" + primCsr.executionTimeMs);
+        System.out.println("[CSR] Kruskal totalWeight=" + kruskalCsr.totalWeight + ", ops=" + kruskalCsr.operationsCount + ", timeMs=" + kruskalCsr.executionTimeMs);
+
+        assertEquals(prim.totalWeight, primCsr.totalWeight, 1e-9, "CSR Prim cost should match");
+        assertEquals(prim.totalWeight, kruskalCsr.totalWeight, 1e-9, "CSR Kruskal cost should match");
+        assertEquals(edgeSetSignature(prim.edges), edgeSetSignature(primCsr.edges), "CSR Prim edge set should match");
+        assertEquals(edgeSetSignature(prim.edges), edgeSetSignature(kruskalCsr.edges), "CSR Kruskal edge set should match");
+    }
+
+    @Test
+    public void testEdgeCursorAndVisitorMatchIterables() {
+        EdgeWeightedGraph G = buildSampleGraph();
+        G.addEdge(new Edge(2, 2, 1.5));     // self-loop
+        G.addEdge(new Edge(1, 0, 0.5));     // parallel edge
+        EdgeWeightedGraph copy = new EdgeWeightedGraph(G);
+
+        // adjacency lists keep the newest edge first, as with the original Bag
+        assertEquals(0.5, G.adjEdge(0, 0).weight(), 1e-9);
+        for (int v = 0; v < G.V(); v++) {
+            int i = 0;
+            for (Edge e : G.adj(v)) {
+                assertSame(e, G.adjEdge(v, i), "Cursor should follow adj order of " + v);
+                assertSame(e, copy.adjEdge(v, i), "Copy should keep adj order of " + v);
+                i++;
+            }
+            assertEquals(G.degree(v), i);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> G.adjEdge(0, G.degree(0)));
+
+        List<String> visited = new ArrayList<>();
+        G.forEachEdge((v, w, weight) -> visited.add(v + "-" + w + " " + weight));
+        List<String> expected = new ArrayList<>();
+        for (Edge e : G.edges()) {
+            int v = Math.min(e.either(), e.other(e.either()));
+            expected.add(v + "-" + e.other(v) + " " + e.weight());
+        }
+        assertEquals(G.E(), visited.size(), "Each edge, self-loops included, should be visited once");
+        assertEquals(expected, visited, "Visitor should follow edges() order");
+
+        List<String> csrVisited = new ArrayList<>();
+        new CSRGraph(G).forEachEdge((v, w, weight) -> csrVisited.add(v + "-" + w + " " + weight));
+        assertEquals(new HashSet<>(expected), new HashSet<>(csrVisited), "CSR visitor should see the same edges");
+    }
+
+    @Test
+    public void testBoruvkaMatchesKruskal() {
+        EdgeWeightedGraph sample = buildSampleGraph();
+        BoruvkaMST.MSTResult small = BoruvkaMST.run(sample);
+        assertEquals(KruskalMST.run(sample).totalWeight, small.totalWeight, 1e-9, "Boruvka cost should match on sample graph");
+
+        // many equal weights and enough edges to take the parallel path
+        EdgeWeightedGraph G = new EdgeWeightedGraph(2000, 40000);
+        KruskalMST.MSTResult kruskal = KruskalMST.run(G);
+        BoruvkaMST.MSTResult boruvka = BoruvkaMST.run(G);
+        BoruvkaMST.MSTResult boruvkaCsr = BoruvkaMST.run(new CSRGraph(G));
+
+        System.out.println("[Boruvka] totalWeight=" + boruvka.totalWeight + ", edges=" + boruvka.edges.size() + ", timeMs=" + boruvka.executionTimeMs + ", ops=" + boruvka.operationsCount);
+
+        assertEquals(kruskal.totalWeight, boruvka.totalWeight, 1e-9, "Boruvka cost should match Kruskal");
+        assertEquals(kruskal.totalWeight, boruvkaCsr.totalWeight, 1e-9, "Boruvka CSR cost should match Kruskal");
+        assertEquals(new HashSet<>(kruskal.edges), new HashSet<>(boruvka.edges), "Boruvka should pick exactly Kruskal's edges");
+
+        EdgeWeightedGraph disconnected = buildDisconnectedGraph();
+        assertEquals(KruskalMST.run(disconnected).edges.size(), BoruvkaMST.run(disconnected).edges.size(),
+                "Boruvka should build a spanning forest on a disconnected graph");
+    }
+
+    @Test
+    public void testKruskalModesAgree() {
+        EdgeWeightedGraph[] graphs = {
+                buildSampleGraph(),
+                buildDisconnectedGraph(),
+                new EdgeWeightedGraph(300, 20000),
+                new EdgeWeightedGraph(1000, 3000)
+        };
+        for (EdgeWeightedGraph G : graphs) {
+            KruskalMST.MSTResult expected = KruskalMST.run(G);
+            for (KruskalMST.Mode mode : KruskalMST.Mode.values()) {
+                KruskalMST.MSTResult res = KruskalMST.run(G, mode);
+                System.out.println("[KruskalModes] " + mode + " V=" + G.V() + ", E=" + G.E() + ", totalWeight=" + res.totalWeight + ", timeMs=" + res.executionTimeMs + ", ops=" + res.operationsCount);
+                assertEquals(expected.totalWeight, res.totalWeight, 1e-9, mode + " cost should match");
+                assertEquals(expected.edges.size(), res.edges.size(), mode + " edge count should match");
+            }
+            assertEquals(new HashSet<>(expected.edges), new HashSet<>(KruskalMST.run(G, KruskalMST.Mode.PARALLEL_SORT).edges),
+                    "Stable parallel sort should pick exactly the same edges");
+
+            // the tree holds G's own edges, in the order sorting G's edges accepts them
+            List<Edge> sorted = KruskalMST.run(G, (MSTStepListener) null).edges;
+            assertEquals(sorted.size(), expected.edges.size());
+            for (int i = 0; i < sorted.size(); i++) assertSame(sorted.get(i), expected.edges.get(i));
+            for (KruskalMST.Mode mode : KruskalMST.Mode.values()) {
+                List<Edge> edges = KruskalMST.run(G, mode).edges;
+                for (Edge e : edges) assertTrue(isEdgeOf(G, e), mode + " should return G's own edges");
+            }
+            for (Edge e : BoruvkaMST.run(G).edges) assertTrue(isEdgeOf(G, e), "Boruvka should return G's own edges");
+        }
+    }
+
+    // is this very Edge object in G's adjacency lists?
+    private static boolean isEdgeOf(EdgeWeightedGraph G, Edge e) {
+        int v = e.either();
+        for (int i = 0; i < G.degree(v); i++) if (G.adjEdge(v, i) == e) return true;
+        return false;
+    }
+
+    @Test
+    public void testParallelWeightOrderIsStableAndExact() {
+        int n = 50000;
+        double[] weights = new double[n];
+        java.util.Random rnd = new java.util.Random(11);
+        for (int i = 0; i < n; i++) {
+            // integers, negatives and values that differ only in the last mantissa bits
+            switch (i % 3) {
+                case 0: weights[i] = rnd.nextInt(100); break;
+                case 1: weights[i] = -rnd.nextDouble(); break;
+                default: weights[i] = Math.nextUp(1.0 + rnd.nextInt(4) * Math.ulp(1.0)); break;
+            }
+        }
+        assertArrayEquals(WeightSort.order(weights, n), WeightSort.parallelOrder(weights, n),
+                "Parallel packed-key order should equal the stable mergesort order");
+        assertArrayEquals(WeightSort.order(weights, n), WeightSort.radixOrder(weights, n),
+                "Radix order should fall back to the stable mergesort order");
+    }
+
+    @Test
+    public void testParallelWeightOrderOnClusteredLargeWeights() {
+        // every key shares its high bits, so the whole array is one repair run
+        int n = 200_000;
+        double[] weights = new double[n];
+        java.util.Random rnd = new java.util.Random(19);
+        for (int i = 0; i < n; i++) weights[i] = 1e12 + rnd.nextDouble() * 10;
+        int[] expected = WeightSort.order(weights, n);
+        int[] actual = assertTimeout(java.time.Duration.ofSeconds(5), () -> WeightSort.parallelOrder(weights, n),
+                "Repairing one long run should not be quadratic");
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void testRadixOrderOnFixedPrecisionWeights() {
+        java.util.Random rnd = new java.util.Random(5);
+        double[] small = new double[20000];      // integers, small range: counting sort
+        double[] cents = new double[20000];      // two decimals: scaled keys
+        double[] wide = new double[20000];       // integers, large range: LSD passes
+        for (int i = 0; i < small.length; i++) {
+            small[i] = rnd.nextInt(100);
+            cents[i] = 0.01 * rnd.nextInt(100);
+            wide[i] = rnd.nextInt(Integer.MAX_VALUE) - 1_000_000_000L;
+        }
+        for (double[] weights : new double[][] { small, cents, wide }) {
+            assertArrayEquals(WeightSort.order(weights, weights.length), WeightSort.radixOrder(weights, weights.length),
+                    "Radix order should equal the stable mergesort order");
+        }
+    }
+
+    @Test
+    public void testRadixOrderFallsBackOnLargeFractionalWeights() {
+        int n = 200_000;
+        double[] weights = new double[n];
+        java.util.Random rnd = new java.util.Random(21);
+        for (int i = 0; i < n; i++) weights[i] = 1e12 + rnd.nextDouble() * 10;
+        assertEquals(0.0, WeightSort.fixedPointScale(weights, n), "Large fractional weights have no fixed-point scale");
+        int[] expected = WeightSort.order(weights, n);
+        int[] actual = assertTimeout(java.time.Duration.ofSeconds(5), () -> WeightSort.radixOrder(weights, n),
+                "Radix order should fall back instead of repairing shared keys");
+        assertArrayEquals(expected, actual);
+
+        assertEquals(1.0, WeightSort.fixedPointScale(new double[] { 1e12, 3e12, -7 }, 3));
+        assertEquals(100.0, WeightSort.fixedPointScale(new double[] { 0.07, 0.37, 94.0 }, 3));
+        assertEquals(0.0, WeightSort.fixedPointScale(new double[] { 5e8 + 0.25e-6 }, 1));
+    }
+
+    @Test
+    public void testDenseMatrixPrimMatchesHeapPrim() {
+        EdgeWeightedGraph sample = buildSampleGraph();
+        PrimMST.MSTResult matrix = PrimMST.run(new AdjMatrixEdgeWeightedGraph(sample));
+        assertEquals(PrimMST.run(sample).totalWeight, matrix.totalWeight, 1e-9, "Matrix Prim cost should match on sample graph");
+        assertEquals(sample.V() - 1, matrix.edges.size());
+
+        // complete graph: the auto-selector should take the matrix path
+        java.util.Random rnd = new java.util.Random(3);
+        EdgeWeightedGraph G = new EdgeWeightedGraph(200);
+        for (int v = 0; v < G.V(); v++)
+            for (int w = v + 1; w < G.V(); w++)
+                G.addEdge(new Edge(v, w, 1 + rnd.nextInt(1000)));
+        assertTrue(PrimMST.isDense(G.V(), G.E()), "Complete graph should count as dense");
+        assertFalse(PrimMST.isDense(1000, 3000), "Sparse graph should not count as dense");
+
+        PrimMST.MSTResult heap = PrimMST.run(G);
+        PrimMST.MSTResult auto = PrimMST.runAuto(G);
+        System.out.println("[Dense] heap timeMs=" + heap.executionTimeMs + ", auto timeMs=" + auto.executionTimeMs + ", totalWeight=" + auto.totalWeight);
+        assertEquals(heap.totalWeight, auto.totalWeight, 1e-9, "Matrix Prim cost should match heap Prim");
+        assertEquals(G.V() - 1, auto.edges.size());
+    }
+
+    @Test
+    public void testEdgeListMatchesGraph() {
+        EdgeWeightedGraph G = new EdgeWeightedGraph(300, 3000);
+        EdgeList edges = EdgeList.of(G);
+        assertEquals(G.E(), edges.E());
+        int i = 0;
+        for (Edge e : G.edges()) {
+            assertEquals(e.weight(), edges.weight(i));
+            assertEquals(Math.min(e.either(), e.other(e.either())), edges.from(i));
+            i++;
+        }
+        // same adjacency order as the graph it came from
+        CSRGraph fromList = new CSRGraph(edges);
+        CSRGraph fromGraph = new CSRGraph(G);
+        for (int v = 0; v < G.V(); v++) assertEquals(fromGraph.degree(v), fromList.degree(v));
+
+        KruskalMST.MSTResult kruskal = KruskalMST.run(G);
+        KruskalMST.MSTResult listKruskal = KruskalMST.run(edges);
+        BoruvkaMST.MSTResult listBoruvka = BoruvkaMST.run(edges);
+        assertEquals(kruskal.totalWeight, listKruskal.totalWeight, 1e-9);
+        assertEquals(kruskal.totalWeight, listBoruvka.totalWeight, 1e-9);
+        assertEquals(kruskal.edges.size(), listKruskal.edges.size());
+
+        // float weights: same tree whenever rounding keeps the weights distinct
+        EdgeList floats = new EdgeList(G.V(), G.E(), true);
+        for (int k = 0; k < edges.E(); k++) floats.add(edges.from(k), edges.to(k), edges.weight(k));
+        assertTrue(floats.hasFloatWeights());
+        KruskalMST.MSTResult floatKruskal = KruskalMST.run(floats);
+        assertEquals(kruskal.totalWeight, floatKruskal.totalWeight, 1e-4);
+        assertEquals(floatKruskal.totalWeight, BoruvkaMST.run(floats).totalWeight, 1e-9);
+
+        // range sorts agree with the full stable order, for both weight columns
+        for (EdgeList list : new EdgeList[] { edges, floats }) {
+            int[] index = new int[list.E()];
+            for (int k = 0; k < index.length; k++) index[k] = k;
+            list.sort(index, 0, index.length / 2);
+            list.sort(index, index.length / 2, index.length);
+            list.sort(index, 0, index.length);
+            assertArrayEquals(list.sortedOrder(), index);
+            assertArrayEquals(list.sortedOrder(), list.parallelSortedOrder());
+            assertArrayEquals(list.sortedOrder(), list.radixSortedOrder());
+        }
+    }
+
+    @Test
+    public void testOffHeapGraphMatchesCSR() {
+        EdgeWeightedGraph G = new EdgeWeightedGraph(400, 5000);
+        G.addEdge(new Edge(3, 3, 0.5));     // self-loop
+        CSRGraph.Builder csrBuilder = new CSRGraph.Builder(G.V());
+        OffHeapGraph.Builder offHeapBuilder = new OffHeapGraph.Builder(G.V());
+        EdgeList edges = EdgeList.of(G);
+        for (int i = 0; i < edges.E(); i++) {
+            csrBuilder.addEdge(edges.from(i), edges.to(i), edges.weight(i));
+            offHeapBuilder.addEdge(edges.from(i), edges.to(i), edges.weight(i));
+        }
+        CSRGraph csr = csrBuilder.build();
+        for (OffHeapGraph offHeap : new OffHeapGraph[] { offHeapBuilder.build(), OffHeapGraph.copyOf(csr) }) {
+            assertEquals(csr.V(), offHeap.V());
+            assertEquals(csr.E(), offHeap.E());
+            for (int v = 0; v < csr.V(); v++) {
+                assertEquals(csr.begin(v), offHeap.begin(v));
+                assertEquals(csr.end(v), offHeap.end(v));
+            }
+            for (int i = 0; i < 2 * csr.E(); i++) {
+                assertEquals(csr.target(i), offHeap.target(i));
+                assertEquals(csr.weight(i), offHeap.weight(i));
+            }
+            assertEquals(PrimMST.run(csr).totalWeight, PrimMST.run(offHeap).totalWeight, 1e-9);
+            assertEquals(KruskalMST.run(csr).totalWeight, KruskalMST.run(offHeap).totalWeight, 1e-9);
+        }
+    }
+
+    @Test
+    public void testExternalKruskalMatchesInMemory(@TempDir Path dir) throws IOException {
+        java.util.Random rnd = new java.util.Random(11);
+        int V = 500, E = 6000;
+        StringBuilder text = new StringBuilder().append(V).append('\n').append(E).append('\n');
+        for (int i = 0; i < E; i++)
+            text.append(rnd.nextInt(V)).append(' ').append(rnd.nextInt(V)).append(' ').append(rnd.nextInt(100_000) / 1000.0).append('\n');
+        Path file = dir.resolve("edges.txt");
+        Files.writeString(file, text);
+
+        KruskalMST.MSTResult inMemory = KruskalMST.run(new EdgeWeightedGraph(new aitu.edu.mst.io.In(file.toFile())));
+        for (int runEdges : new int[] { 1, 97, 1000, E }) {
+            ExternalKruskalMST.MSTResult external = ExternalKruskalMST.run(file, runEdges, dir);
+            assertEquals((E + runEdges - 1) / runEdges, external.runCount);
+            assertEquals(inMemory.totalWeight, external.totalWeight, 1e-6, "External Kruskal cost should match");
+            assertEquals(inMemory.edges.size(), external.edges.size());
+        }
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count(), "Run files should be deleted");
+        }
+    }
+
+    @Test
+    public void testDynamicMSTMatchesKruskalAfterInsertions() {
+        java.util.Random rnd = new java.util.Random(5);
+        int V = 200;
+        DynamicMST dynamic = new DynamicMST(V);
+        EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+        for (int i = 1; i <= 3000; i++) {
+            Edge e = new Edge(rnd.nextInt(V), rnd.nextInt(V), rnd.nextInt(10_000) / 100.0);
+            G.addEdge(e);
+            dynamic.addEdge(e);
+            if (i % 250 == 0) {
+                KruskalMST.MSTResult expected = KruskalMST.run(G);
+                assertEquals(expected.totalWeight, dynamic.totalWeight(), 1e-6, "Dynamic MST cost should match Kruskal after " + i + " insertions");
+                assertEquals(expected.edges.size(), dynamic.size());
+                assertEquals(expected.edges.size(), dynamic.edges().size());
+            }
+        }
+        assertTrue(dynamic.connected(0, V - 1));
+        assertFalse(dynamic.addEdge(3, 3, -1.0), "Self-loops never join the forest");
+
+        // starting from an existing graph gives the same forest
+        DynamicMST fromGraph = new DynamicMST(buildDisconnectedGraph());
+        assertEquals(6.0, fromGraph.totalWeight(), 1e-9);
+        assertFalse(fromGraph.connected(0, 4));
+        assertTrue(fromGraph.addEdge(2, 3, 10.0));
+        assertTrue(fromGraph.addEdge(0, 4, 1.5), "A lighter edge on the cycle replaces the heaviest one");
+        assertEquals(7.5, fromGraph.totalWeight(), 1e-9);
+    }
+
+    @Test
+    public void testDynamicMSTMatchesKruskalAfterDeletionsAndUpdates() {
+        java.util.Random rnd = new java.util.Random(11);
+        int V = 120;
+        DynamicMST dynamic = new DynamicMST(V);
+        List<Edge> present = new ArrayList<>();
+        for (int step = 1; step <= 4000; step++) {
+            int op = rnd.nextInt(4);
+            if (present.isEmpty() || op <= 1) {
+                Edge e = new Edge(rnd.nextInt(V), rnd.nextInt(V), rnd.nextInt(10_000) / 100.0);
+                dynamic.addEdge(e);
+                present.add(e);
+            } else if (op == 2) {
+                Edge e = present.remove(rnd.nextInt(present.size()));
+                assertTrue(dynamic.removeEdge(e));
+                assertFalse(dynamic.removeEdge(e), "An edge can only be removed once");
+            } else {
+                int i = rnd.nextInt(present.size());
+                present.set(i, dynamic.updateWeight(present.get(i), rnd.nextInt(10_000) / 100.0));
+            }
+            if (step % 200 == 0) {
+                EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+                for (Edge e : present) G.addEdge(e);
+                KruskalMST.MSTResult expected = KruskalMST.run(G);
+                assertEquals(expected.totalWeight, dynamic.totalWeight(), 1e-6, "Dynamic MST cost should match Kruskal after " + step + " updates");
+                assertEquals(expected.edges.size(), dynamic.size());
+                assertEquals(present.size(), dynamic.E());
+                UF uf = new UF(V);
+                for (Edge e : dynamic.edges()) {
+                    int a = e.either(), b = e.other(a);
+                    assertNotEquals(uf.find(a), uf.find(b), "Dynamic forest must stay acyclic");
+                    uf.union(a, b);
+                }
+            }
+        }
+
+        // deleting a bridge splits the forest when nothing can replace it
+        DynamicMST fromGraph = new DynamicMST(buildDisconnectedGraph());
+        Edge bridge = fromGraph.edges().get(0);
+        assertTrue(fromGraph.removeEdge(bridge));
+        assertEquals(6.0 - bridge.weight(), fromGraph.totalWeight(), 1e-9);
+        assertFalse(fromGraph.connected(bridge.either(), bridge.other(bridge.either())));
+    }
+
+    @Test
+    public void testDynamicMSTOnBalancedCutsAndTies() {
+        java.util.Random rnd = new java.util.Random(22);
+        int V = 256;
+        DynamicMST dynamic = new DynamicMST(V);
+        List<Edge> present = new ArrayList<>();
+        // a light path under heavy random edges with many ties
+        Edge[] path = new Edge[V - 1];
+        for (int v = 0; v + 1 < V; v++) {
+            path[v] = new Edge(v, v + 1, 0);
+            assertTrue(dynamic.addEdge(path[v]));
+            present.add(path[v]);
+        }
+        for (int i = 0; i < 1500; i++) {
+            Edge e = new Edge(rnd.nextInt(V), rnd.nextInt(V), 1 + rnd.nextInt(5));
+            assertFalse(dynamic.addEdge(e));
+            present.add(e);
+        }
+
+        // delete the path edges middle first, so every cut splits a tree in two equal halves
+        java.util.ArrayDeque<int[]> ranges = new java.util.ArrayDeque<>();
+        ranges.add(new int[] { 0, V - 1 });
+        while (!ranges.isEmpty()) {
+            int[] r = ranges.poll();
+            if (r[0] >= r[1]) continue;
+            int mid = (r[0] + r[1]) >>> 1;
+            assertTrue(dynamic.removeEdge(path[mid]));
+            present.remove(path[mid]);
+            assertDynamicMSTIsMinimal(V, present, dynamic);
+            ranges.add(new int[] { r[0], mid });
+            ranges.add(new int[] { mid + 1, r[1] });
+        }
+
+        // then light insertions, deletions and weight changes mixed, still with ties
+        for (int step = 1; step <= 3000; step++) {
+            int op = rnd.nextInt(4);
+            if (present.isEmpty() || op == 0) {
+                Edge e = new Edge(rnd.nextInt(V), rnd.nextInt(V), rnd.nextInt(6));
+                dynamic.addEdge(e);
+                present.add(e);
+            } else if (op <= 2) {
+                assertTrue(dynamic.removeEdge(present.remove(rnd.nextInt(present.size()))));
+            } else {
+                int i = rnd.nextInt(present.size());
+                present.set(i, dynamic.updateWeight(present.get(i), rnd.nextInt(6)));
+            }
+            if (step % 25 == 0) assertDynamicMSTIsMinimal(V, present, dynamic);
+        }
+    }
+
+    private static void assertDynamicMSTIsMinimal(int V, List<Edge> present, DynamicMST dynamic) {
+        EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+        for (Edge e : present) G.addEdge(e);
+        MSTVerifier.VerificationResult check = MSTVerifier.verify(G, dynamic.edges());
+        assertTrue(check.valid, check.reason);
+        assertEquals(check.totalWeight, dynamic.totalWeight(), 1e-9);
+        assertEquals(present.size(), dynamic.E());
+    }
+
+    @Test
+    public void testPrimForestOnManyComponents() {
+        java.util.Random rnd = new java.util.Random(23);
+        int V = 3000;
+        EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+        // 30 blocks of 100 vertices with edges only inside a block, and a few isolated vertices
+        for (int i = 0; i < 12_000; i++) {
+            int block = rnd.nextInt(30) * 100;
+            int v = block + rnd.nextInt(97), w = block + rnd.nextInt(97);
+            G.addEdge(new Edge(v, w, rnd.nextInt(1000) / 10.0));
+        }
+        UF uf = new UF(V);
+        for (Edge e : G.edges()) uf.union(e.either(), e.other(e.either()));
+        KruskalMST.MSTResult kruskal = KruskalMST.run(G);
+
+        PrimMST.MSTResult prim = PrimMST.run(G);
+        PrimMST.MSTResult parallel = PrimMST.runParallel(G);
+        for (PrimMST.MSTResult r : List.of(prim, parallel, PrimMST.run(new CSRGraph(G)))) {
+            assertEquals(uf.count(), r.componentCount);
+            assertEquals(V - uf.count(), r.edges.size());
+            assertEquals(kruskal.totalWeight, r.totalWeight, 1e-6);
+        }
+        assertEquals(prim.edges, parallel.edges, "Trees come back in order of their smallest vertex");
+    }
+
+    @Test
+    public void testOfflineMSTMatchesKruskalPerQuery() {
+        java.util.Random rnd = new java.util.Random(17);
+        int V = 60;
+        EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+        for (int i = 0; i < 240; i++) G.addEdge(new Edge(rnd.nextInt(V), rnd.nextInt(V), rnd.nextInt(100)));
+        EdgeList edges = EdgeList.of(G);
+        int Q = 500;
+        int[] edge = new int[Q];
+        double[] weight = new double[Q];
+        for (int q = 0; q < Q; q++) {
+            edge[q] = rnd.nextInt(edges.E());
+            weight[q] = rnd.nextInt(100);
+        }
+
+        OfflineMST.MSTResult res = OfflineMST.run(G, edge, weight);
+        assertEquals(Q, res.totalWeights.length);
+        double[] current = new double[edges.E()];
+        for (int e = 0; e < edges.E(); e++) current[e] = edges.weight(e);
+        for (int q = 0; q < Q; q++) {
+            current[edge[q]] = weight[q];
+            EdgeWeightedGraph H = new EdgeWeightedGraph(V);
+            for (int e = 0; e < edges.E(); e++) H.addEdge(new Edge(edges.from(e), edges.to(e), current[e]));
+            assertEquals(KruskalMST.run(H).totalWeight, res.totalWeights[q], 1e-9, "Offline MST weight should match Kruskal after query " + q);
+        }
+        assertEquals(0, OfflineMST.run(G, new int[0], new double[0]).totalWeights.length);
+    }
+
+    @Test
+    public void testMSTVerifierAcceptsMinimalAndRejectsOthers() {
+        java.util.Random rnd = new java.util.Random(29);
+        int V = 400;
+        EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+        for (int i = 0; i < 3000; i++) G.addEdge(new Edge(rnd.nextInt(V), rnd.nextInt(V), rnd.nextInt(500) / 10.0));
+
+        KruskalMST.MSTResult kruskal = KruskalMST.run(G);
+        MSTVerifier.VerificationResult ok = MSTVerifier.verify(G, kruskal.edges);
+        assertTrue(ok.valid, "Kruskal's forest should verify: " + ok.reason);
+        assertNull(ok.reason);
+        assertEquals(kruskal.totalWeight, ok.totalWeight, 1e-9);
+        assertTrue(MSTVerifier.verify(G, PrimMST.run(G).edges).valid);
+        assertTrue(MSTVerifier.verify(buildDisconnectedGraph(), PrimMST.run(buildDisconnectedGraph()).edges).valid,
+                "A minimum spanning forest of a disconnected graph should verify");
+
+        // swap one tree edge for a heavier non-tree edge that reconnects the two halves
+        List<Edge> tree = new ArrayList<>(kruskal.edges);
+        Set<Edge> inTree = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+        inTree.addAll(tree);
+        Edge swapped = null;
+        for (int t = tree.size() - 1; t >= 0 && swapped == null; t--) {
+            Edge removed = tree.get(t);
+            UF halves = new UF(V);
+            for (Edge e : tree) if (e != removed) halves.union(e.either(), e.other(e.either()));
+            for (Edge e : G.edges()) {
+                int a = e.either(), b = e.other(a);
+                if (!inTree.contains(e) && e.weight() > removed.weight() && halves.find(a) != halves.find(b)) {
+                    tree.set(t, e);
+                    swapped = e;
+                    break;
+                }
+            }
+        }
+        assertNotNull(swapped);
+        MSTVerifier.VerificationResult heavier = MSTVerifier.verify(G, tree);
+        assertFalse(heavier.valid, "A spanning tree heavier than the MST must be rejected");
+        assertNotNull(heavier.witness);
+        assertNotNull(heavier.heavier);
+        assertTrue(heavier.witness.weight() < heavier.heavier.weight());
+
+        // not spanning, not a forest, not edges of G
+        assertFalse(MSTVerifier.verify(G, kruskal.edges.subList(1, kruskal.edges.size())).valid);
+        List<Edge> cyclic = new ArrayList<>(kruskal.edges);
+        cyclic.add(kruskal.edges.get(0));
+        assertFalse(MSTVerifier.verify(G, cyclic).valid);
+        List<Edge> foreign = new ArrayList<>(kruskal.edges);
+        Edge first = foreign.get(0);
+        foreign.set(0, new Edge(first.either(), first.other(first.either()), first.weight() - 1000));
+        MSTVerifier.VerificationResult notInG = MSTVerifier.verify(G, foreign);
+        assertFalse(notInG.valid);
+        assertTrue(notInG.reason.contains("not an edge of G"));
+    }
+
+    @Test
+    public void testMSTVerifierMatchesKruskalOnRandomForests() {
+        // any spanning forest of G is minimal iff it weighs as much as Kruskal's; small integer weights make ties
+        java.util.Random rnd = new java.util.Random(31);
+        for (int trial = 0; trial < 200; trial++) {
+            int V = 1 + rnd.nextInt(trial < 100 ? 40 : 600);
+            int groups = 1 + rnd.nextInt(3);
+            EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+            for (int i = rnd.nextInt(4 * V + 1); i > 0; i--) {
+                int v = rnd.nextInt(V), w = rnd.nextInt(V);
+                if (v % groups == w % groups) G.addEdge(new Edge(v, w, rnd.nextInt(6)));
+            }
+            KruskalMST.MSTResult kruskal = KruskalMST.run(G);
+            assertTrue(MSTVerifier.verify(G, kruskal.edges).valid);
+
+            List<Edge> shuffled = new ArrayList<>();
+            for (Edge e : G.edges()) shuffled.add(e);
+            java.util.Collections.shuffle(shuffled, rnd);
+            UF uf = new UF(V);
+            List<Edge> forest = new ArrayList<>();
+            double weight = 0;
+            for (Edge e : shuffled) {
+                int v = e.either(), w = e.other(v);
+                if (uf.find(v) == uf.find(w)) continue;
+                uf.union(v, w);
+                forest.add(e);
+                weight += e.weight();
+            }
+            MSTVerifier.VerificationResult res = MSTVerifier.verify(G, forest);
+            assertEquals(weight == kruskal.totalWeight, res.valid, "trial " + trial + ": " + res.reason);
+            assertEquals(weight, res.totalWeight, 1e-9);
+            if (!res.valid) assertTrue(res.witness.weight() < res.heavier.weight());
+
+            if (!forest.isEmpty()) {
+                Edge dropped = forest.remove(rnd.nextInt(forest.size()));
+                MSTVerifier.VerificationResult split = MSTVerifier.verify(G, forest);
+                assertFalse(split.valid);
+                assertNotNull(split.witness);
+                forest.add(dropped);
+            }
+        }
+    }
 }
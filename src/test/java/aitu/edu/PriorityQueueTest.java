@@ -0,0 +1,90 @@
+package aitu.edu;
+
+import aitu.edu.mst.utility.DoubleIndexMinPQ;
+import aitu.edu.mst.utility.IndexMinPQ;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriorityQueueTest {
+
+    @Test
+    public void testDoubleIndexMinPQMatchesIndexMinPQ() {
+        int n = 500;
+        Random rnd = new Random(42);
+        IndexMinPQ<Double> boxed = new IndexMinPQ<>(n);
+        DoubleIndexMinPQ primitive = new DoubleIndexMinPQ(n);
+
+        for (int i = 0; i < n; i++) {
+            double key = rnd.nextInt(1000);
+            boxed.insert(i, key);
+            primitive.insert(i, key);
+        }
+        for (int k = 0; k < 2000; k++) {
+            int i = rnd.nextInt(n);
+            if (!primitive.contains(i)) continue;
+            double key = primitive.keyOf(i) - 1 - rnd.nextInt(50);
+            boxed.decreaseKey(i, key);
+            primitive.decreaseKey(i, key);
+        }
+
+        assertEquals(boxed.size(), primitive.size());
+        while (!boxed.isEmpty()) {
+            assertEquals(boxed.minKey(), primitive.minKey(), 1e-9, "Minimum keys should match");
+            double key = primitive.minKey();
+            boxed.delMin();
+            int i = primitive.delMin();
+            assertFalse(primitive.contains(i), "Deleted index should leave the queue");
+            assertTrue(primitive.isEmpty() || primitive.minKey() >= key, "Keys should come out in ascending order");
+        }
+        assertTrue(primitive.isEmpty());
+    }
+
+    @Test
+    public void testDoubleIndexMinPQRejectsNonDecreasingKey() {
+        DoubleIndexMinPQ pq = new DoubleIndexMinPQ(4);
+        pq.insert(1, 5.0);
+        assertThrows(IllegalArgumentException.class, () -> pq.decreaseKey(1, 5.0));
+        assertThrows(IllegalArgumentException.class, () -> pq.decreaseKey(1, 6.0));
+        assertThrows(IllegalArgumentException.class, () -> pq.insert(1, 1.0));
+        pq.decreaseKey(1, 2.0);
+        assertEquals(2.0, pq.minKey(), 1e-9);
+        assertEquals(1, pq.delMin());
+    }
+
+    @Test
+    public void testDaryHeapsAgreeWithBinaryHeap() {
+        int n = 300;
+        for (int d : new int[] { 3, 4, 8, 16 }) {
+            Random rnd = new Random(7);
+            DoubleIndexMinPQ binary = new DoubleIndexMinPQ(n);
+            DoubleIndexMinPQ dary = new DoubleIndexMinPQ(n, d);
+            assertEquals(d, dary.arity());
+
+            for (int i = 0; i < n; i++) {
+                double key = rnd.nextDouble();
+                binary.insert(i, key);
+                dary.insert(i, key);
+            }
+            for (int k = 0; k < 1000; k++) {
+                int i = rnd.nextInt(n);
+                if (!binary.contains(i)) continue;
+                if (k % 10 == 0) {
+                    binary.delete(i);
+                    dary.delete(i);
+                } else {
+                    double key = binary.keyOf(i) - 1 - rnd.nextDouble();
+                    binary.decreaseKey(i, key);
+                    dary.decreaseKey(i, key);
+                }
+            }
+            while (!binary.isEmpty()) {
+                assertEquals(binary.minKey(), dary.minKey(), 0.0, "Arity " + d + " should give the same minimum");
+                assertEquals(binary.delMin(), dary.delMin(), "Arity " + d + " should remove the same index");
+            }
+            assertTrue(dary.isEmpty());
+        }
+    }
+}
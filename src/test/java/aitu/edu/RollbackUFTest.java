@@ -0,0 +1,51 @@
+package aitu.edu;
+
+import aitu.edu.mst.core.RollbackUF;
+import aitu.edu.mst.core.UF;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollbackUFTest {
+
+    @Test
+    public void testUnionsMatchUF() {
+        int n = 5_000;
+        Random rnd = new Random(7);
+        UF expected = new UF(n);
+        RollbackUF uf = new RollbackUF(n);
+        for (int i = 0; i < 20_000; i++) {
+            int p = rnd.nextInt(n), q = rnd.nextInt(n);
+            boolean merges = expected.find(p) != expected.find(q);
+            expected.union(p, q);
+            assertEquals(merges, uf.union(p, q));
+        }
+        assertEquals(expected.count(), uf.count());
+        for (int p = 0; p < n; p++)
+            assertEquals(expected.find(p) == expected.find(0), uf.find(p) == uf.find(0));
+    }
+
+    @Test
+    public void testRollbackRestoresEarlierState() {
+        int n = 1_000;
+        Random rnd = new Random(3);
+        RollbackUF uf = new RollbackUF(n);
+        for (int i = 0; i < 300; i++) uf.union(rnd.nextInt(n), rnd.nextInt(n));
+        int snapshot = uf.snapshot();
+        int count = uf.count();
+        int[] root = new int[n];
+        for (int p = 0; p < n; p++) root[p] = uf.find(p);
+
+        for (int i = 0; i < 2_000; i++) uf.union(rnd.nextInt(n), rnd.nextInt(n));
+        assertTrue(uf.count() < count);
+        uf.rollback(snapshot);
+
+        assertEquals(count, uf.count());
+        for (int p = 0; p < n; p++) assertEquals(root[p], uf.find(p), "Roots should be restored exactly");
+        uf.rollback(0);
+        assertEquals(n, uf.count());
+        assertThrows(IllegalArgumentException.class, () -> uf.rollback(1));
+    }
+}
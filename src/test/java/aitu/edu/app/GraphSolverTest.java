@@ -0,0 +1,55 @@
+package aitu.edu.app;
+
+import aitu.edu.mst.core.Edge;
+import aitu.edu.mst.core.EdgeWeightedGraph;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphSolverTest {
+
+    private static String solve(List<EdgeWeightedGraph> graphs, List<List<String>> names, int threads) throws IOException {
+        StringWriter text = new StringWriter();
+        try (ResultWriter out = new ResultWriter(text, false);
+             GraphSolver solver = new GraphSolver(out, threads)) {
+            for (int i = 0; i < graphs.size(); i++)
+                solver.submit(1000 - i, names.get(i), graphs.get(i).E(), graphs.get(i));
+        }
+        return text.toString();
+    }
+
+    @Test
+    public void testResultsStayInSubmissionOrder() throws IOException {
+        // big and small graphs alternate, so later graphs often finish before earlier ones
+        Random random = new Random(14);
+        List<EdgeWeightedGraph> graphs = new ArrayList<>();
+        List<List<String>> names = new ArrayList<>();
+        int N = 40;
+        for (int i = 0; i < N; i++) {
+            int V = i % 2 == 0 ? 3000 - 60 * i : 2 + i;
+            EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+            for (int v = 1; v < V; v++) G.addEdge(new Edge(random.nextInt(v), v, random.nextInt(1000)));
+            for (int e = 0; e < 3 * V; e++) G.addEdge(new Edge(random.nextInt(V), random.nextInt(V), random.nextInt(1000)));
+            List<String> nodes = new ArrayList<>();
+            for (int v = 0; v < V; v++) nodes.add("g" + i + "_" + v);
+            graphs.add(G);
+            names.add(nodes);
+        }
+
+        String sequential = GraphStreamReaderTest.withoutTimes(solve(graphs, names, 1));
+        JsonArray results = JsonParser.parseString(sequential).getAsJsonObject().getAsJsonArray("results");
+        assertEquals(N, results.size());
+        for (int i = 0; i < N; i++)
+            assertEquals(1000 - i, results.get(i).getAsJsonObject().get("graph_id").getAsInt());
+        for (int run = 0; run < 3; run++)
+            assertEquals(sequential, GraphStreamReaderTest.withoutTimes(solve(graphs, names, 4)));
+    }
+}
@@ -0,0 +1,139 @@
+package aitu.edu.app;
+
+import aitu.edu.mst.core.Edge;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphStreamReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private static GraphStreamReader reader(String json) {
+        return new GraphStreamReader(new StringReader(json));
+    }
+
+    @Test
+    public void testEdgesBeforeNodesAreBuffered() throws IOException {
+        String json = "{\"graphs\": ["
+                + "{\"edges\": [{\"from\": \"b\", \"to\": \"c\", \"weight\": 2.5}, {\"from\": \"a\", \"to\": \"b\", \"weight\": 1}],"
+                + " \"id\": 7, \"nodes\": [\"a\", \"b\", \"c\"]},"
+                + "{\"id\": 8, \"nodes\": [\"x\", \"y\"], \"edges\": [{\"from\": \"y\", \"to\": \"x\", \"weight\": 4}]}"
+                + "]}";
+        try (GraphStreamReader graphs = reader(json)) {
+            assertTrue(graphs.hasNext());
+            GraphStreamReader.StreamedGraph g = graphs.next();
+            assertEquals(7, g.id);
+            assertEquals(List.of("a", "b", "c"), g.nodes);
+            assertEquals(2, g.edgeCount);
+            assertEquals(3, g.graph.V());
+            assertEquals(Set.of("0-1 1.0", "1-2 2.5"), edges(g));
+
+            GraphStreamReader.StreamedGraph h = graphs.next();
+            assertEquals(8, h.id);
+            assertEquals(Set.of("0-1 4.0"), edges(h));
+            assertFalse(graphs.hasNext());
+        }
+    }
+
+    @Test
+    public void testUnknownNodesAreCountedButNotAdded() throws IOException {
+        // once with the nodes known while the edges stream in, once with the edges buffered
+        String known = "{\"graphs\": [{\"id\": 1, \"nodes\": [\"a\", \"b\"], \"edges\": ["
+                + "{\"from\": \"a\", \"to\": \"z\", \"weight\": 1}, {\"from\": \"a\", \"to\": \"b\", \"weight\": 2}]}]}";
+        String buffered = "{\"graphs\": [{\"id\": 1, \"edges\": ["
+                + "{\"from\": \"a\", \"to\": \"z\", \"weight\": 1}, {\"from\": \"a\", \"to\": \"b\", \"weight\": 2}],"
+                + " \"nodes\": [\"a\", \"b\"]}]}";
+        for (String json : new String[] { known, buffered }) {
+            try (GraphStreamReader graphs = reader(json)) {
+                GraphStreamReader.StreamedGraph g = graphs.next();
+                assertEquals(2, g.edgeCount);
+                assertEquals(Set.of("0-1 2.0"), edges(g));
+                assertFalse(graphs.hasNext());
+            }
+        }
+
+        // edges without any nodes list make an empty graph
+        try (GraphStreamReader graphs = reader("{\"graphs\": [{\"id\": 3, \"edges\": [{\"from\": \"a\", \"to\": \"b\", \"weight\": 1}]}]}")) {
+            GraphStreamReader.StreamedGraph g = graphs.next();
+            assertEquals(1, g.edgeCount);
+            assertEquals(0, g.graph.V());
+        }
+    }
+
+    @Test
+    public void testUnknownKeysAreSkipped() throws IOException {
+        String json = "{\"version\": 2, \"meta\": {\"graphs\": [1, 2], \"note\": \"x\"}, \"graphs\": ["
+                + "{\"label\": {\"nested\": [true, null]}, \"id\": 5, \"nodes\": [\"a\", \"b\"], \"extra\": [1, 2, 3],"
+                + " \"edges\": [{\"color\": \"red\", \"from\": \"a\", \"to\": \"b\", \"tags\": [\"t\"], \"weight\": 3}]}"
+                + "], \"trailer\": {}}";
+        try (GraphStreamReader graphs = reader(json)) {
+            GraphStreamReader.StreamedGraph g = graphs.next();
+            assertEquals(5, g.id);
+            assertEquals(List.of("a", "b"), g.nodes);
+            assertEquals(Set.of("0-1 3.0"), edges(g));
+            assertFalse(graphs.hasNext());
+            assertFalse(graphs.hasNext());
+        }
+    }
+
+    @Test
+    public void testMissingGraphsKey() throws IOException {
+        try (GraphStreamReader graphs = reader("{\"results\": [{\"id\": 1}], \"count\": 1}")) {
+            assertFalse(graphs.hasNext());
+            assertThrows(IllegalStateException.class, graphs::next);
+        }
+        try (GraphStreamReader graphs = reader("{}")) {
+            assertFalse(graphs.hasNext());
+        }
+        try (GraphStreamReader graphs = reader("{\"graphs\": []}")) {
+            assertFalse(graphs.hasNext());
+        }
+    }
+
+    @Test
+    public void testStreamingOutputMatchesBatch() throws IOException {
+        // edges before nodes, an unknown node and an unknown key, next to the sparse dataset
+        Path odd = dir.resolve("odd.json");
+        Files.writeString(odd, "{\"graphs\": ["
+                + "{\"edges\": [{\"from\": \"b\", \"to\": \"c\", \"weight\": 2.5}, {\"from\": \"a\", \"to\": \"q\", \"weight\": 1},"
+                + " {\"from\": \"a\", \"to\": \"b\", \"weight\": 0.5}], \"id\": 7, \"note\": \"x\", \"nodes\": [\"a\", \"b\", \"c\"]},"
+                + "{\"id\": 8, \"nodes\": [\"x\", \"y\", \"z\"], \"edges\": [{\"from\": \"y\", \"to\": \"x\", \"weight\": 4}]}"
+                + "]}");
+        for (String input : new String[] { "src/main/resources/random_graphs.json", odd.toString() }) {
+            Path batch = dir.resolve("batch.json");
+            Path stream = dir.resolve("stream.json");
+            Main.main(new String[] { input, batch.toString() });
+            Main.main(new String[] { "--stream", input, stream.toString() });
+            String expected = withoutTimes(Files.readString(batch));
+            assertTrue(expected.contains("\"mst_edges\""));
+            assertEquals(expected, withoutTimes(Files.readString(stream)), input);
+        }
+    }
+
+    // each edge as "v-w weight" with v < w
+    private static Set<String> edges(GraphStreamReader.StreamedGraph g) {
+        Set<String> edges = new HashSet<>();
+        for (Edge e : g.graph.edges()) {
+            int v = e.either(), w = e.other(v);
+            edges.add(Math.min(v, w) + "-" + Math.max(v, w) + " " + e.weight());
+        }
+        assertEquals(g.graph.E(), edges.size());
+        return edges;
+    }
+
+    // the only field that differs from run to run
+    static String withoutTimes(String json) {
+        return json.replaceAll("\"execution_time_ms\":\\s*[-+0-9.Ee]+", "\"execution_time_ms\": 0");
+    }
+}
@@ -0,0 +1,145 @@
+package aitu.edu.app;
+
+import aitu.edu.mst.KruskalMST;
+import aitu.edu.mst.PrimMST;
+import aitu.edu.mst.core.Edge;
+import aitu.edu.mst.core.EdgeWeightedGraph;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+import com.google.gson.annotations.SerializedName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultWriterTest {
+
+    // the output classes Main serialized with Gson before ResultWriter
+    static class IOStats {
+        int vertices;
+        int edges;
+    }
+
+    static class EdgeOut {
+        String from;
+        String to;
+        double weight;
+
+        EdgeOut(String f, String t, double w) { from = f; to = t; weight = w; }
+    }
+
+    static class AlgoOut {
+        @SerializedName("mst_edges")
+        List<EdgeOut> mstEdges = new ArrayList<>();
+        @SerializedName("total_cost")
+        double totalCost;
+        @SerializedName("operations_count")
+        long operationsCount;
+        @SerializedName("execution_time_ms")
+        double executionTimeMs;
+    }
+
+    static class GraphResult {
+        @SerializedName("graph_id")
+        int graphId;
+        @SerializedName("input_stats")
+        IOStats inputStats;
+        AlgoOut prim;
+        AlgoOut kruskal;
+    }
+
+    static class OutputRoot {
+        List<GraphResult> results = new ArrayList<>();
+    }
+
+    private static final class Solved {
+        final int id;
+        final List<String> nodes;
+        final int edgeCount;
+        final PrimMST.MSTResult prim;
+        final KruskalMST.MSTResult kruskal;
+
+        Solved(int id, List<String> nodes, int edgeCount, EdgeWeightedGraph G) {
+            this.id = id;
+            this.nodes = nodes;
+            this.edgeCount = edgeCount;
+            this.prim = PrimMST.run(G);
+            this.kruskal = KruskalMST.run(G);
+        }
+    }
+
+    // a connected graph, a disconnected one with fractional weights, and a lone vertex
+    private static List<Solved> sample() {
+        List<Solved> solved = new ArrayList<>();
+        EdgeWeightedGraph G = new EdgeWeightedGraph(4);
+        G.addEdge(new Edge(0, 1, 4));
+        G.addEdge(new Edge(1, 2, 2));
+        G.addEdge(new Edge(0, 2, 3));
+        G.addEdge(new Edge(2, 3, 7));
+        solved.add(new Solved(1, List.of("A", "B", "C", "D"), 4, G));
+        EdgeWeightedGraph H = new EdgeWeightedGraph(5);
+        H.addEdge(new Edge(0, 1, 0.1));
+        H.addEdge(new Edge(3, 4, 1e-7));
+        H.addEdge(new Edge(4, 2, 12345.678));
+        solved.add(new Solved(2, List.of("n\"1", "n\\2", "é3", "n 4", "N_5"), 4, H));
+        solved.add(new Solved(3, List.of("only"), 0, new EdgeWeightedGraph(1)));
+        return solved;
+    }
+
+    private static String write(List<Solved> solved, boolean compact) throws IOException {
+        StringWriter text = new StringWriter();
+        try (ResultWriter out = new ResultWriter(text, compact)) {
+            for (Solved s : solved) out.write(s.id, s.nodes, s.edgeCount, s.prim, s.kruskal);
+        }
+        return text.toString();
+    }
+
+    private static String gsonPretty(List<Solved> solved) {
+        OutputRoot root = new OutputRoot();
+        for (Solved s : solved) {
+            GraphResult gr = new GraphResult();
+            gr.graphId = s.id;
+            gr.inputStats = new IOStats();
+            gr.inputStats.vertices = s.nodes.size();
+            gr.inputStats.edges = s.edgeCount;
+            gr.prim = algo(s.nodes, s.prim.edges, s.prim.totalWeight, s.prim.operationsCount, s.prim.executionTimeMs);
+            gr.kruskal = algo(s.nodes, s.kruskal.edges, s.kruskal.totalWeight, s.kruskal.operationsCount,
+                    s.kruskal.executionTimeMs);
+            root.results.add(gr);
+        }
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+
+    private static AlgoOut algo(List<String> nodes, List<Edge> edges, double totalCost, long operationsCount,
+                                double executionTimeMs) {
+        AlgoOut out = new AlgoOut();
+        out.totalCost = totalCost;
+        out.operationsCount = operationsCount;
+        out.executionTimeMs = executionTimeMs;
+        for (Edge e : edges) out.mstEdges.add(new EdgeOut(nodes.get(e.either()), nodes.get(e.other(e.either())), e.weight()));
+        return out;
+    }
+
+    @Test
+    public void testPrettyMatchesGsonPrettyPrinting() throws IOException {
+        List<Solved> solved = sample();
+        assertEquals(gsonPretty(solved), write(solved, false));
+        assertEquals(gsonPretty(List.of()), write(List.of(), false));
+    }
+
+    @Test
+    public void testCompactParsesToTheSameTree() throws IOException {
+        List<Solved> solved = sample();
+        String compact = write(solved, true);
+        assertFalse(compact.contains("\n"));
+        assertFalse(compact.contains(": "));
+        assertTrue(compact.startsWith("{\"results\":[{\"graph_id\":1,"));
+        assertEquals(JsonParser.parseString(write(solved, false)), JsonParser.parseString(compact));
+        assertEquals(JsonParser.parseString(gsonPretty(solved)), JsonParser.parseString(compact));
+        assertEquals("{\"results\":[]}", write(List.of(), true));
+    }
+}
@@ -0,0 +1,54 @@
+package aitu.edu.mst;
+
+import aitu.edu.mst.core.Edge;
+import aitu.edu.mst.core.EdgeWeightedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// runParallel with a forced pool size, so the parallel path runs even on one processor
+public class PrimMSTTest {
+
+    private static void assertSameForest(EdgeWeightedGraph G) {
+        PrimMST.MSTResult prim = PrimMST.run(G);
+        for (int parallelism : new int[] { 2, 4, 8 }) {
+            PrimMST.MSTResult parallel = PrimMST.runParallel(G, parallelism);
+            assertEquals(prim.edges, parallel.edges, "parallelism " + parallelism);
+            assertEquals(prim.componentCount, parallel.componentCount);
+            assertEquals(prim.totalWeight, parallel.totalWeight, 1e-9);
+            // the labeling pass is only counted on the parallel path
+            assertEquals(prim.operationsCount + G.V() + 2L * G.E(), parallel.operationsCount);
+        }
+    }
+
+    @Test
+    public void testParallelForestOnManyComponents() {
+        Random rnd = new Random(23);
+        int V = 3000;
+        EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+        // 30 blocks of 100 vertices with edges only inside a block, and a few isolated vertices
+        for (int i = 0; i < 12_000; i++) {
+            int block = rnd.nextInt(30) * 100;
+            int v = block + rnd.nextInt(97), w = block + rnd.nextInt(97);
+            G.addEdge(new Edge(v, w, rnd.nextInt(1000) / 10.0));
+        }
+        assertSameForest(G);
+    }
+
+    @Test
+    public void testParallelForestOnInterleavedComponents() {
+        // even and odd vertices form two components, so neither is a contiguous range
+        Random rnd = new Random(24);
+        int V = 500;
+        EdgeWeightedGraph G = new EdgeWeightedGraph(V);
+        for (int i = 0; i < 2000; i++) {
+            int v = rnd.nextInt(V), w = rnd.nextInt(V / 2) * 2 + v % 2;
+            G.addEdge(new Edge(v, w, rnd.nextInt(50)));
+        }
+        assertSameForest(G);
+        assertSameForest(new EdgeWeightedGraph(1));
+        assertSameForest(new EdgeWeightedGraph(6));
+    }
+}